@@ -0,0 +1,98 @@
+package com.stardevllc.range;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares read throughput of {@link StampedRangeSet} against a RangeSet guarded by a single monitor, the way <code>Collections.synchronized</code> wrappers work, at 1, 4, 16 and 64 reader threads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LockingBenchmark {
+    private static final int SIZE = 100_000;
+    
+    @Param({"stamped", "synchronized"})
+    public String locking;
+    
+    @Param({"tree", "array"})
+    public String implementation;
+    
+    private RangeSet<Integer> rangeSet;
+
+    @Setup
+    public void setup() {
+        RangeSet.Builder<Integer> builder = new RangeSet.Builder<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            builder.add(i * 10L, i * 10L + 9, i);
+        }
+
+        RangeSet<Integer> delegate = implementation.equals("array") ? builder.buildArray() : builder.build();
+        rangeSet = locking.equals("stamped") ? new StampedRangeSet<>(delegate) : new SynchronizedRangeSet<>(delegate);
+    }
+
+    private Integer read() {
+        return rangeSet.get(ThreadLocalRandom.current().nextLong(SIZE * 10L));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer get1() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer get4() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Integer get16() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Integer get64() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long getMinMax16() {
+        return rangeSet.getMax() - rangeSet.getMin();
+    }
+
+    /**
+     * The read side of a monitor guarded RangeSet, as a baseline for the optimistic reads
+     */
+    private static class SynchronizedRangeSet<V> extends RangeSet<V> {
+        private final RangeSet<V> delegate;
+
+        private SynchronizedRangeSet(RangeSet<V> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized V get(long index) {
+            return delegate.get(index);
+        }
+
+        @Override
+        public synchronized long getMin() {
+            return delegate.getMin();
+        }
+
+        @Override
+        public synchronized long getMax() {
+            return delegate.getMax();
+        }
+    }
+}
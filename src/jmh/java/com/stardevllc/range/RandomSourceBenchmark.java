@@ -0,0 +1,68 @@
+package com.stardevllc.range;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Compares how sampling throughput scales across threads for a shared {@link Random} against per thread generators. <br>
+ * The shared Random serializes every draw on a CAS of its seed, the others give each thread its own state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomSourceBenchmark {
+    
+    @Param({"Random", "ThreadLocalRandom", "SplittableRandom", "L64X128MixRandom"})
+    public String source;
+    
+    private RangeSampler<Integer> sampler;
+    private Supplier<RandomGenerator> randomSource;
+
+    @Setup
+    public void setup() {
+        RangeSet.Builder<Integer> builder = RangeSet.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add(i * 10L, i * 10L + 9, i);
+        }
+        
+        sampler = new RangeSampler<>(builder.buildImmutable());
+        randomSource = switch (source) {
+            case "Random" -> {
+                Random random = new Random();
+                yield () -> random;
+            }
+            case "ThreadLocalRandom" -> ThreadLocalRandom::current;
+            default -> {
+                ThreadLocal<RandomGenerator> generators = ThreadLocal.withInitial(RandomGeneratorFactory.of(source)::create);
+                yield generators::get;
+            }
+        };
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer oneThread() {
+        return sampler.sample(randomSource.get());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer fourThreads() {
+        return sampler.sample(randomSource.get());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer allCores() {
+        return sampler.sample(randomSource.get());
+    }
+}
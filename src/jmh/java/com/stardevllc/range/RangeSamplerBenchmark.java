@@ -0,0 +1,73 @@
+package com.stardevllc.range;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single and batched draws of the cumulative and alias samplers across set sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class RangeSamplerBenchmark {
+    private static final int BATCH = 4096;
+    
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+    
+    @Param({"cumulative", "alias"})
+    public String sampler;
+    
+    private RangeSampler<Integer> rangeSampler;
+    private Integer[] values;
+    private long[] keys;
+
+    @Setup
+    public void setup() {
+        RangeSet.Builder<Integer> builder = new RangeSet.Builder<>(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(i * 20L, i * 20L + (i % 10), i);
+        }
+
+        ImmutableRangeSet<Integer> rangeSet = builder.buildImmutable();
+        rangeSampler = sampler.equals("alias") ? new AliasRangeSampler<>(rangeSet) : new RangeSampler<>(rangeSet);
+        values = new Integer[BATCH];
+        keys = new long[BATCH];
+        rangeSampler.sample(ThreadLocalRandom.current());
+    }
+
+    @Benchmark
+    public Integer sample() {
+        return rangeSampler.sample(ThreadLocalRandom.current());
+    }
+
+    @Benchmark
+    public long sampleKey() {
+        return rangeSampler.sampleKey(ThreadLocalRandom.current());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer sampleAllCores() {
+        return rangeSampler.sample(ThreadLocalRandom.current());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Integer[] sampleBatch() {
+        rangeSampler.sample(ThreadLocalRandom.current(), values);
+        return values;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] sampleKeysBatch() {
+        rangeSampler.sampleKeys(ThreadLocalRandom.current(), keys);
+        return keys;
+    }
+}
@@ -0,0 +1,209 @@
+package com.stardevllc.range;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every public RangeSet operation across set sizes, layouts and implementations. <br>
+ * The dense layout has no gaps between ranges, the gappy layout leaves a gap as wide as a range after every range. Miss keys fall in those gaps or, for the dense layout, past the max. <br>
+ * Operations that change the set undo themselves in the same invocation so the set stays the same size for the whole run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class RangeSetBenchmark {
+    private static final int KEY_COUNT = 1 << 16;
+    private static final long WIDTH = 10;
+    
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+    
+    @Param({"dense", "gappy"})
+    public String layout;
+    
+    @Param({"tree", "array", "immutable", "concurrent", "copyOnWrite", "offHeap"})
+    public String implementation;
+    
+    private RangeSet<Integer> rangeSet;
+    private long stride;
+    private long[] hitKeys;
+    private long[] missKeys;
+    private Integer[] values;
+    private int[] positions;
+    private Range<Integer> existing;
+    private Range<Integer> outside;
+
+    @Setup
+    public void setup() {
+        stride = layout.equals("dense") ? WIDTH : WIDTH * 2;
+        RangeSet.Builder<Integer> builder = new RangeSet.Builder<>(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(i * stride, i * stride + WIDTH - 1, i);
+        }
+
+        rangeSet = switch (implementation) {
+            case "tree" -> builder.build();
+            case "array" -> builder.buildArray();
+            case "immutable" -> builder.buildImmutable();
+            case "concurrent" -> new ConcurrentRangeSet<>(builder.build().getValues());
+            case "copyOnWrite" -> new CopyOnWriteRangeSet<>(builder.buildImmutable());
+            case "offHeap" -> OffHeapRangeSet.copyOf(builder.buildImmutable());
+            default -> throw new IllegalArgumentException("Unknown implementation " + implementation);
+        };
+
+        SplittableRandom random = new SplittableRandom(42);
+        hitKeys = new long[KEY_COUNT];
+        missKeys = new long[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            long range = random.nextLong(size);
+            hitKeys[i] = range * stride + random.nextLong(WIDTH);
+            missKeys[i] = stride == WIDTH ? rangeSet.getMax() + 1 + range : range * stride + WIDTH + random.nextLong(WIDTH);
+        }
+
+        values = new Integer[KEY_COUNT];
+        positions = new int[KEY_COUNT];
+
+        long middle = size / 2;
+        existing = new Range<>(middle * stride, middle * stride + WIDTH - 1, (int) middle);
+        outside = new Range<>(rangeSet.getMax() + 1, rangeSet.getMax() + WIDTH, -1);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        private int next() {
+            return next = (next + 1) & (KEY_COUNT - 1);
+        }
+    }
+
+    @Benchmark
+    public Integer getHit(Cursor cursor) {
+        return rangeSet.get(hitKeys[cursor.next()]);
+    }
+
+    @Benchmark
+    public Integer getMiss(Cursor cursor) {
+        return rangeSet.get(missKeys[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer getHitAllCores(Cursor cursor) {
+        return rangeSet.get(hitKeys[cursor.next()]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEY_COUNT)
+    public Integer[] getAll() {
+        rangeSet.getAll(hitKeys, values);
+        return values;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEY_COUNT)
+    public int[] indexOfAll() {
+        rangeSet.indexOfAll(hitKeys, positions);
+        return positions;
+    }
+
+    @Benchmark
+    public Range<Integer> getRange(Cursor cursor) {
+        return rangeSet.getRange(hitKeys[cursor.next()]);
+    }
+
+    @Benchmark
+    public long getMin() {
+        return rangeSet.getMin();
+    }
+
+    @Benchmark
+    public long getMax() {
+        return rangeSet.getMax();
+    }
+
+    @Benchmark
+    public int size() {
+        return rangeSet.size();
+    }
+
+    @Benchmark
+    public Collection<Range<Integer>> getValues() {
+        return rangeSet.getValues();
+    }
+
+    @Benchmark
+    public RangeSet<Integer> cloneSet() {
+        return rangeSet.clone();
+    }
+
+    @Benchmark
+    public ImmutableRangeSet<Integer> freeze() {
+        return rangeSet.freeze();
+    }
+
+    @Benchmark
+    public Range<Integer> addThenRemove() {
+        if (rangeSet instanceof ImmutableRangeSet || rangeSet instanceof OffHeapRangeSet) {
+            return null;
+        }
+        
+        rangeSet.add(outside);
+        return rangeSet.remove(outside.min());
+    }
+
+    @Benchmark
+    public RangeSet<Integer> addOverlapping() {
+        if (rangeSet instanceof ImmutableRangeSet || rangeSet instanceof OffHeapRangeSet) {
+            return null;
+        }
+        
+        return rangeSet.add(existing);
+    }
+
+    @Benchmark
+    public RangeSet<Integer> replace() {
+        if (rangeSet instanceof ImmutableRangeSet || rangeSet instanceof OffHeapRangeSet) {
+            return null;
+        }
+        
+        return rangeSet.replace(existing);
+    }
+
+    @Benchmark
+    public Range<Integer> addMaxThenRemove() {
+        if (rangeSet instanceof ImmutableRangeSet || rangeSet instanceof OffHeapRangeSet) {
+            return null;
+        }
+        
+        rangeSet.addMax(WIDTH - 1, -1);
+        return rangeSet.remove(rangeSet.getMax());
+    }
+
+    @Benchmark
+    public Range<Integer> addMinThenRemove() {
+        if (rangeSet instanceof ImmutableRangeSet || rangeSet instanceof OffHeapRangeSet) {
+            return null;
+        }
+        
+        rangeSet.addMin(WIDTH - 1, -1);
+        return rangeSet.remove(rangeSet.getMin());
+    }
+
+    @Benchmark
+    public Range<Integer> removeValueThenAdd() {
+        if (rangeSet instanceof ImmutableRangeSet || rangeSet instanceof OffHeapRangeSet) {
+            return null;
+        }
+        
+        Range<Integer> removed = rangeSet.remove(existing.value());
+        rangeSet.add(existing);
+        return removed;
+    }
+}
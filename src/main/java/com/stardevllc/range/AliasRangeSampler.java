@@ -0,0 +1,102 @@
+package com.stardevllc.range;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A {@link RangeSampler} that picks ranges using Vose's alias method. <br>
+ * Building the alias table is O(n) and each draw is O(1) no matter how many ranges there are. The weights are converted to doubles, so the probabilities are exact to within double precision. <br>
+ * Like RangeSampler, the table is rebuilt on the next draw after the RangeSet changes.
+ *
+ * @param <V> The parameterized type of the value of the RangeSet
+ */
+public class AliasRangeSampler<V> extends RangeSampler<V> {
+
+    /**
+     * Constructs an alias sampler over the provided RangeSet
+     *
+     * @param rangeSet The RangeSet to sample from
+     */
+    public AliasRangeSampler(RangeSet<V> rangeSet) {
+        super(rangeSet);
+    }
+
+    @Override
+    protected Table createTable(int modCount) {
+        return new AliasTable(rangeSet, modCount);
+    }
+
+    private static final class AliasTable extends Table {
+        private final double[] probabilities;
+        private final int[] aliases;
+
+        private AliasTable(RangeSet<?> rangeSet, int modCount) {
+            super(rangeSet, modCount);
+            int size = values.length;
+            this.probabilities = new double[size];
+            this.aliases = new int[size];
+
+            double[] scaled = new double[size];
+            int[] small = new int[size];
+            int[] large = new int[size];
+            int smallCount = 0, largeCount = 0;
+            for (int i = 0; i < size; i++) {
+                scaled[i] = (double) widthOf(i) * size / total;
+                if (scaled[i] < 1.0) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                probabilities[less] = scaled[less];
+                aliases[less] = more;
+                scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+                if (scaled[more] < 1.0) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+
+            while (largeCount > 0) {
+                probabilities[large[--largeCount]] = 1.0;
+            }
+
+            while (smallCount > 0) {
+                probabilities[small[--smallCount]] = 1.0;
+            }
+        }
+
+        @Override
+        protected int pick(RandomGenerator random) {
+            int column = random.nextInt(values.length);
+            return random.nextDouble() < probabilities[column] ? column : aliases[column];
+        }
+
+        /**
+         * Each draw is already O(1) so there is nothing to gain from sorting the batch
+         */
+        @Override
+        protected void pickAll(RandomGenerator random, int[] positions) {
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = pick(random);
+            }
+        }
+
+        @Override
+        protected void pickKeys(RandomGenerator random, long[] keys) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = pickKey(random);
+            }
+        }
+
+        @Override
+        protected long pickKey(RandomGenerator random) {
+            int position = pick(random);
+            return maxs[position] - random.nextLong(widthOf(position));
+        }
+    }
+}
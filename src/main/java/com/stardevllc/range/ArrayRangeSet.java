@@ -0,0 +1,320 @@
+package com.stardevllc.range;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A read optimized RangeSet that keeps the mins, maxes and values in parallel arrays sorted by min. <br>
+ * Lookups are a binary search over the primitive min array, so no Range instances are touched when getting a value. <br>
+ * Adding and removing shifts the arrays, so this is best suited to sets that are populated once and read often.
+ *
+ * @param <V> The parameterized type of the value to represent
+ */
+public class ArrayRangeSet<V> extends RangeSet<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    protected long[] mins;
+    protected long[] maxs;
+    protected Object[] values;
+    protected int size;
+
+    /**
+     * Constructs an empty ArrayRangeSet
+     */
+    public ArrayRangeSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty ArrayRangeSet with room for <code>capacity</code> ranges before the arrays need to grow
+     *
+     * @param capacity The initial capacity
+     */
+    public ArrayRangeSet(int capacity) {
+        this.mins = new long[capacity];
+        this.maxs = new long[capacity];
+        this.values = new Object[capacity];
+    }
+
+    /**
+     * The arrays are used directly and must already be sorted by min without any overlaps.
+     */
+    ArrayRangeSet(long[] mins, long[] maxs, Object[] values, int size) {
+        this.mins = mins;
+        this.maxs = maxs;
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Constructs an ArrayRangeSet with an initial set of values. <br>
+     * The ranges provided do no need to be sorted in any way. Overlapping ranges are skipped like they are with {@link #add(Range)}
+     *
+     * @param ranges The initial set of ranges for this RangeSet
+     */
+    public ArrayRangeSet(Collection<Range<V>> ranges) {
+        this(Math.max(ranges.size(), DEFAULT_CAPACITY));
+        for (Range<V> range : ranges) {
+            int position = RangeArrays.insertionIndex(mins, maxs, size, range.min(), range.max());
+            if (position >= 0) {
+                insert(position, range.min(), range.max(), range.value());
+            }
+        }
+    }
+
+    /**
+     * Constructs an ArrayRangeSet with the same ranges as another RangeSet
+     *
+     * @param rangeSet The RangeSet to copy the ranges from
+     */
+    public ArrayRangeSet(RangeSet<V> rangeSet) {
+        this(rangeSet.getValues());
+    }
+
+    @Override
+    public RangeSet<V> add(Range<V> range) {
+        int position = RangeArrays.insertionIndex(mins, maxs, size, range.min(), range.max());
+        if (position >= 0) {
+            place(position, range.min(), range.max(), range.value());
+        }
+
+        return this;
+    }
+
+    @Override
+    public RangeSet<V> replace(Range<V> range) {
+        int first = RangeArrays.firstIntersecting(mins, maxs, size, range.min());
+        delete(first, RangeArrays.overlapEnd(mins, size, first, range.max()));
+        place(first, range.min(), range.max(), range.value());
+        return this;
+    }
+
+    /**
+     * Merges the runs of touching ranges with equal values in place, shifting the remaining ranges down in a single pass
+     */
+    @Override
+    public RangeSet<V> compact() {
+        if (size == 0) {
+            return this;
+        }
+
+        int last = 0;
+        for (int i = 1; i < size; i++) {
+            if (touching(maxs[last], mins[i]) && Objects.equals(values[last], values[i])) {
+                maxs[last] = maxs[i];
+            } else {
+                last++;
+                mins[last] = mins[i];
+                maxs[last] = maxs[i];
+                values[last] = values[i];
+            }
+        }
+
+        int compacted = last + 1;
+        if (compacted != size) {
+            Arrays.fill(values, compacted, size, null);
+            size = compacted;
+            modCount++;
+        }
+
+        return this;
+    }
+
+    @Override
+    public Range<V> remove(long index) {
+        int position = RangeArrays.indexOf(mins, maxs, size, index);
+        if (position < 0) {
+            return null;
+        }
+
+        Range<V> range = rangeAt(position);
+        delete(position, position + 1);
+        return range;
+    }
+
+    @Override
+    public Range<V> remove(V value) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(values[i], value)) {
+                Range<V> range = rangeAt(i);
+                delete(i, i + 1);
+                return range;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public V get(long index) {
+        int position = RangeArrays.indexOf(mins, maxs, size, index);
+        return position >= 0 ? valueAt(position) : null;
+    }
+
+    @Override
+    public Range<V> getRange(long index) {
+        int position = RangeArrays.indexOf(mins, maxs, size, index);
+        return position >= 0 ? rangeAt(position) : null;
+    }
+
+    @Override
+    public void getAll(long[] indexes, V[] out) {
+        int[] positions = new int[indexes.length];
+        indexOfAll(indexes, positions);
+        for (int i = 0; i < positions.length; i++) {
+            out[i] = positions[i] >= 0 ? valueAt(positions[i]) : null;
+        }
+    }
+
+    @Override
+    public void indexOfAll(long[] indexes, int[] out) {
+        RangeArrays.indexOfAll(mins, maxs, size, indexes, out);
+    }
+
+    @Override
+    public void forEachIntersecting(long min, long max, Consumer<? super Range<V>> consumer) {
+        if (min > max) {
+            return;
+        }
+
+        for (int i = RangeArrays.firstIntersecting(mins, maxs, size, min); i < size && mins[i] <= max; i++) {
+            consumer.accept(rangeAt(i));
+        }
+    }
+
+    @Override
+    public Collection<Range<V>> getValues() {
+        LinkedList<Range<V>> ranges = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            ranges.add(rangeAt(i));
+        }
+
+        return ranges;
+    }
+
+    @Override
+    public long getMin() {
+        return size == 0 ? Long.MAX_VALUE : mins[0];
+    }
+
+    @Override
+    public long getMax() {
+        return size == 0 ? Long.MIN_VALUE : maxs[size - 1];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ImmutableRangeSet<V> freeze() {
+        return new ImmutableRangeSet<>(Arrays.copyOf(mins, size), Arrays.copyOf(maxs, size), Arrays.copyOf(values, size));
+    }
+
+    @Override
+    public ArrayRangeSet<V> copy() {
+        int capacity = Math.max(size, DEFAULT_CAPACITY);
+        ArrayRangeSet<V> copy = new ArrayRangeSet<>(Arrays.copyOf(mins, capacity), Arrays.copyOf(maxs, capacity), Arrays.copyOf(values, capacity), size);
+        copy.coalescing = coalescing;
+        return copy;
+    }
+
+    @Override
+    public ArrayRangeSet<V> copy(UnaryOperator<V> copier) {
+        ArrayRangeSet<V> copy = copy();
+        for (int i = 0; i < size; i++) {
+            copy.values[i] = copier.apply(valueAt(i));
+        }
+
+        return copy;
+    }
+
+    @Override
+    public ArrayRangeSet<V> clone() {
+        return copy();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected V valueAt(int position) {
+        return (V) values[position];
+    }
+
+    protected Range<V> rangeAt(int position) {
+        return new Range<>(mins[position], maxs[position], valueAt(position));
+    }
+
+    /**
+     * Inserts the range at the position, or extends the neighbouring ranges over it instead when coalescing and they touch it with an equal value
+     */
+    private void place(int position, long min, long max, Object value) {
+        if (coalescing) {
+            boolean before = position > 0 && touching(maxs[position - 1], min) && Objects.equals(values[position - 1], value);
+            boolean after = position < size && touching(max, mins[position]) && Objects.equals(values[position], value);
+            if (before && after) {
+                maxs[position - 1] = maxs[position];
+                delete(position, position + 1);
+                return;
+            }
+
+            if (before) {
+                maxs[position - 1] = max;
+                modCount++;
+                return;
+            }
+
+            if (after) {
+                mins[position] = min;
+                modCount++;
+                return;
+            }
+        }
+
+        insert(position, min, max, value);
+    }
+
+    private void insert(int position, long min, long max, Object value) {
+        if (size == mins.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, size * 2);
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        int moved = size - position;
+        System.arraycopy(mins, position, mins, position + 1, moved);
+        System.arraycopy(maxs, position, maxs, position + 1, moved);
+        System.arraycopy(values, position, values, position + 1, moved);
+        mins[position] = min;
+        maxs[position] = max;
+        values[position] = value;
+        size++;
+        modCount++;
+    }
+
+    private void delete(int from, int to) {
+        int removed = to - from;
+        if (removed <= 0) {
+            return;
+        }
+
+        int moved = size - to;
+        System.arraycopy(mins, to, mins, from, moved);
+        System.arraycopy(maxs, to, maxs, from, moved);
+        System.arraycopy(values, to, values, from, moved);
+        Arrays.fill(values, size - removed, size, null);
+        size -= removed;
+        modCount++;
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayRangeSet{" +
+                "ranges=" + getValues() +
+                '}';
+    }
+}
@@ -0,0 +1,238 @@
+package com.stardevllc.range;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread safe RangeSet backed by a {@link ConcurrentSkipListSet}. <br>
+ * Reads ({@link #get(long)}, {@link #getMin()}, {@link #getMax()}, {@link #getValues()} and the batch lookups) never take a lock and are never blocked by writers. <br>
+ * Writes are serialized on an internal lock so the overlap check and the change are atomic with respect to other writes. A reader running alongside {@link #replace(Range)} can see the set after the old ranges are removed but before the new one is added, use {@link CopyOnWriteRangeSet} if readers must only ever see whole changes.
+ *
+ * @param <V> The parameterized type of the value to represent
+ */
+public class ConcurrentRangeSet<V> extends RangeSet<V> {
+    private final Object writeLock = new Object();
+    private volatile int version;
+    private volatile int size;
+
+    /**
+     * Constructs an empty ConcurrentRangeSet
+     */
+    public ConcurrentRangeSet() {
+        this.ranges = new ConcurrentSkipListSet<>();
+    }
+
+    /**
+     * Constructs a ConcurrentRangeSet with an initial set of values. <br>
+     * The ranges provided do no need to be sorted in any way. Overlapping ranges are skipped like they are with {@link #add(Range)}
+     *
+     * @param ranges The initial set of ranges for this RangeSet
+     */
+    public ConcurrentRangeSet(Collection<Range<V>> ranges) {
+        this();
+        for (Range<V> range : ranges) {
+            Range<V> floor = this.ranges.floor(range);
+            Range<V> ceiling = this.ranges.ceiling(range);
+            if ((floor == null || floor.max() < range.min()) && (ceiling == null || ceiling.min() > range.max())) {
+                this.ranges.add(range);
+                changed(1);
+            }
+        }
+    }
+
+    @Override
+    public RangeSet<V> add(Range<V> range) {
+        synchronized (writeLock) {
+            if (!overlaps(range)) {
+                Range<V> added = coalescing ? coalesce(range) : range;
+                ranges.add(added);
+                changed(1 - coalesced(range, added));
+            }
+        }
+
+        return this;
+    }
+
+    @Override
+    public RangeSet<V> replace(Range<V> range) {
+        synchronized (writeLock) {
+            int removed = 0;
+            Range<V> first = ranges.ceiling(new Range<>(range.min(), range.min(), null));
+            if (first != null) {
+                Iterator<Range<V>> iterator = ranges.tailSet(first, true).iterator();
+                while (iterator.hasNext() && iterator.next().min() <= range.max()) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+
+            Range<V> added = coalescing ? coalesce(range) : range;
+            ranges.add(added);
+            changed(1 - removed - coalesced(range, added));
+        }
+
+        return this;
+    }
+
+    @Override
+    public RangeSet<V> addMax(long max, V value) {
+        synchronized (writeLock) {
+            return super.addMax(max, value);
+        }
+    }
+
+    @Override
+    public RangeSet<V> addMin(long min, V value) {
+        synchronized (writeLock) {
+            return super.addMin(min, value);
+        }
+    }
+
+    @Override
+    public RangeSet<V> setCoalescing(boolean coalescing) {
+        synchronized (writeLock) {
+            return super.setCoalescing(coalescing);
+        }
+    }
+
+    /**
+     * Merges the runs of touching ranges with equal values. Each run is swapped for the merged range in place, so like {@link #replace(Range)} a reader running alongside this can briefly miss the indexes of a run.
+     *
+     * @return This RangeSet
+     */
+    @Override
+    public RangeSet<V> compact() {
+        synchronized (writeLock) {
+            List<Range<V>> compacted = compacted(ranges);
+            if (compacted.size() == size) {
+                return this;
+            }
+
+            for (Range<V> range : compacted) {
+                Range<V> existing = ranges.floor(new Range<>(range.min(), range.min(), null));
+                if (existing != null && existing.max() != range.max()) {
+                    ranges.subSet(existing, true, ranges.floor(new Range<>(range.max(), range.max(), null)), true).clear();
+                    ranges.add(range);
+                }
+            }
+
+            changed(compacted.size() - size);
+            return this;
+        }
+    }
+
+    @Override
+    public Range<V> remove(long index) {
+        synchronized (writeLock) {
+            Range<V> range = getRange(index);
+            if (range != null) {
+                ranges.remove(range);
+                changed(-1);
+            }
+
+            return range;
+        }
+    }
+
+    @Override
+    public Range<V> remove(V value) {
+        synchronized (writeLock) {
+            for (Range<V> range : this.ranges) {
+                if (range.value().equals(value)) {
+                    ranges.remove(range);
+                    changed(-1);
+                    return range;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    @Override
+    public long getMin() {
+        try {
+            return ranges.first().min();
+        } catch (NoSuchElementException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public long getMax() {
+        try {
+            return ranges.last().max();
+        } catch (NoSuchElementException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * @return The amount of ranges in this RangeSet. This is tracked on write, as counting a ConcurrentSkipListSet is O(n)
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getModCount() {
+        return version;
+    }
+
+    @Override
+    public ConcurrentRangeSet<V> copy() {
+        return copy(UnaryOperator.identity());
+    }
+
+    /**
+     * Creates a copy with every value passed through the copier. The ranges are read in order from a weakly consistent snapshot and inserted into the new skip list one at a time, so this is O(n log n). <br>
+     * A ConcurrentSkipListSet has no linear bulk load that keeps the set writable, its SortedSet constructor also inserts one range at a time.
+     *
+     * @param copier Creates the value of a copied range from the original value
+     * @return The copy
+     */
+    @Override
+    public ConcurrentRangeSet<V> copy(UnaryOperator<V> copier) {
+        List<Range<V>> copied = new ArrayList<>();
+        for (Range<V> range : this.ranges) {
+            copied.add(range.copy(copier));
+        }
+
+        ConcurrentRangeSet<V> copy = new ConcurrentRangeSet<>();
+        copy.coalescing = coalescing;
+        copy.ranges.addAll(copied);
+        copy.size = copied.size();
+        return copy;
+    }
+
+    @Override
+    public ConcurrentRangeSet<V> clone() {
+        return copy();
+    }
+
+    /**
+     * @return The amount of neighbouring ranges that were merged into the added range
+     */
+    private static int coalesced(Range<?> range, Range<?> added) {
+        return (added.min() != range.min() ? 1 : 0) + (added.max() != range.max() ? 1 : 0);
+    }
+
+    private void changed(int sizeChange) {
+        modCount++;
+        version = modCount;
+        size += sizeChange;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentRangeSet{" +
+                "ranges=" + ranges +
+                '}';
+    }
+}
@@ -0,0 +1,196 @@
+package com.stardevllc.range;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread safe RangeSet where every change builds a new {@link ImmutableRangeSet} snapshot and publishes it with a single volatile write. <br>
+ * Readers only ever read the current snapshot, so they never lock and never see a partially applied change. {@link #freeze()} returns the current snapshot without copying. <br>
+ * Every write copies the whole set, so this is meant for sets that are read far more than they are changed. Use {@link #transaction(Consumer)} to publish several changes as one snapshot.
+ *
+ * @param <V> The parameterized type of the value to represent
+ */
+public class CopyOnWriteRangeSet<V> extends RangeSet<V> {
+    private final Object writeLock = new Object();
+    private volatile ImmutableRangeSet<V> snapshot;
+    private volatile int version;
+
+    /**
+     * Constructs an empty CopyOnWriteRangeSet
+     */
+    public CopyOnWriteRangeSet() {
+        this(new ImmutableRangeSet<>(new long[0], new long[0], new Object[0]));
+    }
+
+    /**
+     * Constructs a CopyOnWriteRangeSet that starts with the ranges of another RangeSet
+     *
+     * @param rangeSet The RangeSet to copy the ranges from
+     */
+    public CopyOnWriteRangeSet(RangeSet<V> rangeSet) {
+        this.snapshot = rangeSet.freeze();
+    }
+
+    /**
+     * Applies a group of changes and publishes them as a single snapshot. <br>
+     * The consumer is given a private mutable copy of the current ranges, any of the RangeSet methods can be used on it. Readers see either none or all of the changes. The copy must not be used after the consumer returns.
+     *
+     * @param changes The changes to apply
+     */
+    public void transaction(Consumer<RangeSet<V>> changes) {
+        write(working -> {
+            changes.accept(working);
+            return null;
+        });
+    }
+
+    @Override
+    public RangeSet<V> add(Range<V> range) {
+        write(working -> working.add(range));
+        return this;
+    }
+
+    @Override
+    public RangeSet<V> replace(Range<V> range) {
+        write(working -> working.replace(range));
+        return this;
+    }
+
+    @Override
+    public RangeSet<V> addMax(long max, V value) {
+        write(working -> working.addMax(max, value));
+        return this;
+    }
+
+    @Override
+    public RangeSet<V> addMin(long min, V value) {
+        write(working -> working.addMin(min, value));
+        return this;
+    }
+
+    @Override
+    public RangeSet<V> setCoalescing(boolean coalescing) {
+        synchronized (writeLock) {
+            return super.setCoalescing(coalescing);
+        }
+    }
+
+    @Override
+    public RangeSet<V> compact() {
+        write(ArrayRangeSet::compact);
+        return this;
+    }
+
+    @Override
+    public Range<V> remove(long index) {
+        return write(working -> working.remove(index));
+    }
+
+    @Override
+    public Range<V> remove(V value) {
+        return write(working -> working.remove(value));
+    }
+
+    @Override
+    public V get(long index) {
+        return snapshot.get(index);
+    }
+
+    @Override
+    public Range<V> getRange(long index) {
+        return snapshot.getRange(index);
+    }
+
+    @Override
+    public void getAll(long[] indexes, V[] out) {
+        snapshot.getAll(indexes, out);
+    }
+
+    @Override
+    public void indexOfAll(long[] indexes, int[] out) {
+        snapshot.indexOfAll(indexes, out);
+    }
+
+    @Override
+    public void forEachIntersecting(long min, long max, Consumer<? super Range<V>> consumer) {
+        snapshot.forEachIntersecting(min, max, consumer);
+    }
+
+    @Override
+    public Collection<Range<V>> getValues() {
+        return snapshot.getValues();
+    }
+
+    @Override
+    public long getMin() {
+        return snapshot.getMin();
+    }
+
+    @Override
+    public long getMax() {
+        return snapshot.getMax();
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public int getModCount() {
+        return version;
+    }
+
+    /**
+     * @return The current snapshot, this does not copy anything
+     */
+    @Override
+    public ImmutableRangeSet<V> freeze() {
+        return snapshot;
+    }
+
+    /**
+     * @return A new CopyOnWriteRangeSet that starts from the current snapshot, which is shared as it can not change
+     */
+    @Override
+    public CopyOnWriteRangeSet<V> copy() {
+        CopyOnWriteRangeSet<V> copy = new CopyOnWriteRangeSet<>(snapshot);
+        copy.coalescing = coalescing;
+        return copy;
+    }
+
+    @Override
+    public CopyOnWriteRangeSet<V> copy(UnaryOperator<V> copier) {
+        CopyOnWriteRangeSet<V> copy = new CopyOnWriteRangeSet<>(snapshot.copy(copier));
+        copy.coalescing = coalescing;
+        return copy;
+    }
+
+    @Override
+    public CopyOnWriteRangeSet<V> clone() {
+        return copy();
+    }
+
+    private <R> R write(Function<ArrayRangeSet<V>, R> change) {
+        synchronized (writeLock) {
+            ArrayRangeSet<V> working = snapshot.toArrayRangeSet();
+            working.coalescing = coalescing;
+            R result = change.apply(working);
+            if (working.getModCount() != 0) {
+                snapshot = working.freeze();
+                version++;
+            }
+
+            return result;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CopyOnWriteRangeSet{" +
+                "ranges=" + snapshot.getValues() +
+                '}';
+    }
+}
@@ -0,0 +1,185 @@
+package com.stardevllc.range;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A read only snapshot of a RangeSet. This is created using {@link RangeSet#freeze()}. <br>
+ * The ranges are compiled into final parallel arrays sorted by min, so lookups are a binary search with no allocation. <br>
+ * All of the methods that change the ranges throw an {@link UnsupportedOperationException}. As nothing can change after construction, an instance can be shared between threads without any synchronization.
+ *
+ * @param <V> The parameterized type of the value to represent
+ */
+public final class ImmutableRangeSet<V> extends RangeSet<V> {
+    private final long[] mins;
+    private final long[] maxs;
+    private final Object[] values;
+
+    /**
+     * The arrays are used directly and must not be changed by the caller afterwards.
+     */
+    ImmutableRangeSet(long[] mins, long[] maxs, Object[] values) {
+        this.mins = mins;
+        this.maxs = maxs;
+        this.values = values;
+    }
+
+    @Override
+    public RangeSet<V> add(Range<V> range) {
+        throw new UnsupportedOperationException("ImmutableRangeSet cannot be modified");
+    }
+
+    @Override
+    public RangeSet<V> replace(Range<V> range) {
+        throw new UnsupportedOperationException("ImmutableRangeSet cannot be modified");
+    }
+
+    @Override
+    public RangeSet<V> setCoalescing(boolean coalescing) {
+        throw new UnsupportedOperationException("ImmutableRangeSet cannot be modified");
+    }
+
+    @Override
+    public RangeSet<V> compact() {
+        throw new UnsupportedOperationException("ImmutableRangeSet cannot be modified");
+    }
+
+    @Override
+    public Range<V> remove(long index) {
+        throw new UnsupportedOperationException("ImmutableRangeSet cannot be modified");
+    }
+
+    @Override
+    public Range<V> remove(V value) {
+        throw new UnsupportedOperationException("ImmutableRangeSet cannot be modified");
+    }
+
+    @Override
+    public V get(long index) {
+        int position = RangeArrays.indexOf(mins, maxs, mins.length, index);
+        return position >= 0 ? valueAt(position) : null;
+    }
+
+    @Override
+    public Range<V> getRange(long index) {
+        int position = RangeArrays.indexOf(mins, maxs, mins.length, index);
+        return position >= 0 ? rangeAt(position) : null;
+    }
+
+    @Override
+    public void getAll(long[] indexes, V[] out) {
+        int[] positions = new int[indexes.length];
+        indexOfAll(indexes, positions);
+        for (int i = 0; i < positions.length; i++) {
+            out[i] = positions[i] >= 0 ? valueAt(positions[i]) : null;
+        }
+    }
+
+    @Override
+    public void indexOfAll(long[] indexes, int[] out) {
+        RangeArrays.indexOfAll(mins, maxs, mins.length, indexes, out);
+    }
+
+    @Override
+    public void forEachIntersecting(long min, long max, Consumer<? super Range<V>> consumer) {
+        if (min > max) {
+            return;
+        }
+
+        for (int i = RangeArrays.firstIntersecting(mins, maxs, mins.length, min); i < mins.length && mins[i] <= max; i++) {
+            consumer.accept(rangeAt(i));
+        }
+    }
+
+    @Override
+    public Collection<Range<V>> getValues() {
+        LinkedList<Range<V>> ranges = new LinkedList<>();
+        for (int i = 0; i < mins.length; i++) {
+            ranges.add(rangeAt(i));
+        }
+
+        return ranges;
+    }
+
+    @Override
+    public long getMin() {
+        return mins.length == 0 ? Long.MAX_VALUE : mins[0];
+    }
+
+    @Override
+    public long getMax() {
+        return maxs.length == 0 ? Long.MIN_VALUE : maxs[maxs.length - 1];
+    }
+
+    @Override
+    public int size() {
+        return mins.length;
+    }
+
+    /**
+     * @return A mutable copy of this set that shares nothing with it
+     */
+    ArrayRangeSet<V> toArrayRangeSet() {
+        int capacity = Math.max(mins.length, 16);
+        return new ArrayRangeSet<>(Arrays.copyOf(mins, capacity), Arrays.copyOf(maxs, capacity), Arrays.copyOf(values, capacity), mins.length);
+    }
+
+    /**
+     * @return This instance as it is already frozen
+     */
+    @Override
+    public ImmutableRangeSet<V> freeze() {
+        return this;
+    }
+
+    /**
+     * @return This instance as there is nothing that could be changed on a copy
+     */
+    @Override
+    public ImmutableRangeSet<V> copy() {
+        return this;
+    }
+
+    /**
+     * Creates a copy with every value passed through the copier. The mins and maxes can not change, so they are shared with this set.
+     *
+     * @param copier Creates the value of a copied range from the original value
+     * @return The copy
+     */
+    @Override
+    public ImmutableRangeSet<V> copy(UnaryOperator<V> copier) {
+        Object[] copied = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            copied[i] = copier.apply(valueAt(i));
+        }
+
+        return new ImmutableRangeSet<>(mins, maxs, copied);
+    }
+
+    /**
+     * @return This instance as there is nothing that could be changed on a copy
+     */
+    @Override
+    public ImmutableRangeSet<V> clone() {
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int position) {
+        return (V) values[position];
+    }
+
+    private Range<V> rangeAt(int position) {
+        return new Range<>(mins[position], maxs[position], valueAt(position));
+    }
+
+    @Override
+    public String toString() {
+        return "ImmutableRangeSet{" +
+                "ranges=" + getValues() +
+                '}';
+    }
+}
@@ -0,0 +1,132 @@
+package com.stardevllc.range;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A set of non overlapping ranges that each map to a primitive int. <br>
+ * This keeps the mins, maxes and values in parallel primitive arrays sorted by min, so looking up a value is a binary search with no boxing or allocation. <br>
+ * It follows the same rules as {@link RangeSet}, adding a range that overlaps an existing one does nothing while replacing removes the overlapping ranges first.
+ */
+public class IntValuedRangeSet extends PrimitiveRangeSet implements Cloneable {
+    private int[] values;
+
+    /**
+     * Constructs an empty IntValuedRangeSet
+     */
+    public IntValuedRangeSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty IntValuedRangeSet with room for <code>capacity</code> ranges before the arrays need to grow
+     *
+     * @param capacity The initial capacity
+     */
+    public IntValuedRangeSet(int capacity) {
+        super(capacity);
+        this.values = new int[capacity];
+    }
+
+    /**
+     * Constructs an IntValuedRangeSet with the same ranges as a RangeSet. Ranges with a null value are skipped.
+     *
+     * @param rangeSet The RangeSet to copy the ranges from
+     */
+    public IntValuedRangeSet(RangeSet<Integer> rangeSet) {
+        this(rangeSet.getValues());
+    }
+
+    /**
+     * The ranges of a RangeSet are already sorted without overlaps, so they are appended in order
+     */
+    private IntValuedRangeSet(Collection<Range<Integer>> ranges) {
+        this(Math.max(ranges.size(), DEFAULT_CAPACITY));
+        for (Range<Integer> range : ranges) {
+            if (range.value() != null) {
+                mins[size] = range.min();
+                maxs[size] = range.max();
+                values[size] = range.value();
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Adds a range. Nothing is added if the range overlaps an existing range.
+     *
+     * @param min   The minimum value of the range
+     * @param max   The maximum value of the range
+     * @param value The value to be represented by this range.
+     */
+    public IntValuedRangeSet add(long min, long max, int value) {
+        int position = addBounds(min, max);
+        if (position >= 0) {
+            values[position] = value;
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds a range, removing any ranges that it overlaps first
+     *
+     * @param min   The minimum value of the range
+     * @param max   The maximum value of the range
+     * @param value The value to be represented by this range.
+     */
+    public IntValuedRangeSet replace(long min, long max, int value) {
+        int position = replaceBounds(min, max);
+        values[position] = value;
+        return this;
+    }
+
+    /**
+     * Gets the value represented by the index
+     *
+     * @param index   The index of the value
+     * @param missing The value to return if no range contains the index
+     * @return The value of the range containing the index or <code>missing</code>
+     */
+    public int get(long index, int missing) {
+        int position = indexOf(index);
+        return position >= 0 ? values[position] : missing;
+    }
+
+    /**
+     * Gets the values represented by a batch of indexes. See {@link RangeSet#getAll(long[], Object[])}.
+     *
+     * @param indexes The indexes to look up, in any order
+     * @param out     The array to place the values in, at the same position as their index
+     * @param missing The value to use for indexes that no range contains
+     */
+    public void getAll(long[] indexes, int[] out, int missing) {
+        RangeArrays.indexOfAll(mins, maxs, size, indexes, out);
+        for (int i = 0; i < indexes.length; i++) {
+            out[i] = out[i] >= 0 ? values[out[i]] : missing;
+        }
+    }
+
+    @Override
+    public IntValuedRangeSet clone() {
+        IntValuedRangeSet clone = new IntValuedRangeSet(Math.max(size, DEFAULT_CAPACITY));
+        copyBoundsTo(clone);
+        System.arraycopy(values, 0, clone.values, 0, size);
+        return clone;
+    }
+
+    @Override
+    void resizeValues(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void moveValues(int from, int to, int length) {
+        System.arraycopy(values, from, values, to, length);
+    }
+
+    @Override
+    void appendValue(StringBuilder builder, int position) {
+        builder.append(values[position]);
+    }
+}
@@ -0,0 +1,277 @@
+package com.stardevllc.range;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A read only RangeSet that keeps its mins and maxes outside of the Java heap. <br>
+ * The ranges are stored in a direct {@link ByteBuffer} as three regions, the sorted mins, the maxes and an int id per range that points into a table of the distinct values. The heap only holds that value table, so the heap footprint is O(distinct values) instead of O(ranges). <br>
+ * The buffer can also be a read only mapping of a file, see {@link RangeSetFiles}. <br>
+ * The buffer is released by the garbage collector once this set is no longer reachable. Like {@link ImmutableRangeSet}, all of the methods that change the ranges throw an {@link UnsupportedOperationException} and an instance can be shared between threads.
+ *
+ * @param <V> The parameterized type of the value to represent
+ */
+public final class OffHeapRangeSet<V> extends RangeSet<V> {
+    /**
+     * The amount of bytes used per range, a long min, a long max and an int value id
+     */
+    static final int BYTES_PER_RANGE = Long.BYTES * 2 + Integer.BYTES;
+    
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int maxsOffset;
+    private final int idsOffset;
+    private final Object[] values;
+
+    /**
+     * The buffer is used directly and must hold <code>size</code> sorted mins, followed by the maxes and then the value ids. It must not be changed afterwards.
+     */
+    OffHeapRangeSet(ByteBuffer buffer, int size, Object[] values) {
+        this.buffer = buffer;
+        this.size = size;
+        this.maxsOffset = size * Long.BYTES;
+        this.idsOffset = size * Long.BYTES * 2;
+        this.values = values;
+    }
+
+    /**
+     * Copies the ranges of a RangeSet into a new OffHeapRangeSet
+     *
+     * @param rangeSet The RangeSet to copy
+     * @param <V>      The parameterized type of the value to represent
+     * @return The new OffHeapRangeSet
+     * @throws IllegalArgumentException If the RangeSet has too many ranges to fit in a single buffer
+     */
+    public static <V> OffHeapRangeSet<V> copyOf(RangeSet<V> rangeSet) {
+        Collection<Range<V>> ranges = rangeSet.getValues();
+        int size = ranges.size();
+        if ((long) size * BYTES_PER_RANGE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many ranges to store off heap: " + size);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size * BYTES_PER_RANGE).order(ByteOrder.nativeOrder());
+        Map<V, Integer> ids = new HashMap<>();
+        List<Object> values = new ArrayList<>();
+        int i = 0;
+        for (Range<V> range : ranges) {
+            Integer id = ids.get(range.value());
+            if (id == null) {
+                id = values.size();
+                ids.put(range.value(), id);
+                values.add(range.value());
+            }
+
+            buffer.putLong(i * Long.BYTES, range.min());
+            buffer.putLong((size + i) * Long.BYTES, range.max());
+            buffer.putInt(size * Long.BYTES * 2 + i * Integer.BYTES, id);
+            i++;
+        }
+
+        return new OffHeapRangeSet<>(buffer, size, values.toArray());
+    }
+
+    @Override
+    public RangeSet<V> add(Range<V> range) {
+        throw new UnsupportedOperationException("OffHeapRangeSet cannot be modified");
+    }
+
+    @Override
+    public RangeSet<V> replace(Range<V> range) {
+        throw new UnsupportedOperationException("OffHeapRangeSet cannot be modified");
+    }
+
+    @Override
+    public RangeSet<V> setCoalescing(boolean coalescing) {
+        throw new UnsupportedOperationException("OffHeapRangeSet cannot be modified");
+    }
+
+    @Override
+    public RangeSet<V> compact() {
+        throw new UnsupportedOperationException("OffHeapRangeSet cannot be modified");
+    }
+
+    @Override
+    public Range<V> remove(long index) {
+        throw new UnsupportedOperationException("OffHeapRangeSet cannot be modified");
+    }
+
+    @Override
+    public Range<V> remove(V value) {
+        throw new UnsupportedOperationException("OffHeapRangeSet cannot be modified");
+    }
+
+    @Override
+    public V get(long index) {
+        int position = indexOf(index);
+        return position >= 0 ? valueAt(position) : null;
+    }
+
+    @Override
+    public Range<V> getRange(long index) {
+        int position = indexOf(index);
+        return position >= 0 ? rangeAt(position) : null;
+    }
+
+    @Override
+    public void getAll(long[] indexes, V[] out) {
+        int[] positions = new int[indexes.length];
+        indexOfAll(indexes, positions);
+        for (int i = 0; i < positions.length; i++) {
+            out[i] = positions[i] >= 0 ? valueAt(positions[i]) : null;
+        }
+    }
+
+    @Override
+    public void indexOfAll(long[] indexes, int[] out) {
+        if (useSingleLookups(indexes.length)) {
+            for (int i = 0; i < indexes.length; i++) {
+                out[i] = indexOf(indexes[i]);
+            }
+
+            return;
+        }
+
+        int range = 0;
+        for (int position : RangeArrays.sortedOrder(indexes, indexes.length)) {
+            long index = indexes[position];
+            while (range < size && maxAt(range) < index) {
+                range++;
+            }
+
+            out[position] = range < size && minAt(range) <= index ? range : -1;
+        }
+    }
+
+    @Override
+    public void forEachIntersecting(long min, long max, Consumer<? super Range<V>> consumer) {
+        if (min > max) {
+            return;
+        }
+
+        int first = floorIndex(min);
+        if (first < 0 || maxAt(first) < min) {
+            first++;
+        }
+
+        for (int i = first; i < size && minAt(i) <= max; i++) {
+            consumer.accept(rangeAt(i));
+        }
+    }
+
+    @Override
+    public Collection<Range<V>> getValues() {
+        LinkedList<Range<V>> ranges = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            ranges.add(rangeAt(i));
+        }
+
+        return ranges;
+    }
+
+    @Override
+    public long getMin() {
+        return size == 0 ? Long.MAX_VALUE : minAt(0);
+    }
+
+    @Override
+    public long getMax() {
+        return size == 0 ? Long.MIN_VALUE : maxAt(size - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The amount of distinct values that the ranges point to
+     */
+    public int getDistinctValueCount() {
+        return values.length;
+    }
+
+    /**
+     * @return This instance as there is nothing that could be changed on a copy
+     */
+    @Override
+    public OffHeapRangeSet<V> copy() {
+        return this;
+    }
+
+    /**
+     * Creates a copy with the values passed through the copier. The ranges can not change, so the buffer is shared and only the table of distinct values is copied, calling the copier once per distinct value.
+     *
+     * @param copier Creates the value of a copied range from the original value
+     * @return The copy
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public OffHeapRangeSet<V> copy(UnaryOperator<V> copier) {
+        Object[] copied = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            copied[i] = copier.apply((V) values[i]);
+        }
+
+        return new OffHeapRangeSet<>(buffer, size, copied);
+    }
+
+    /**
+     * @return This instance as there is nothing that could be changed on a copy
+     */
+    @Override
+    public OffHeapRangeSet<V> clone() {
+        return this;
+    }
+
+    private int indexOf(long index) {
+        int position = floorIndex(index);
+        return position >= 0 && index <= maxAt(position) ? position : -1;
+    }
+
+    private int floorIndex(long index) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (minAt(middle) <= index) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return high;
+    }
+
+    private long minAt(int position) {
+        return buffer.getLong(position * Long.BYTES);
+    }
+
+    private long maxAt(int position) {
+        return buffer.getLong(maxsOffset + position * Long.BYTES);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int position) {
+        return (V) values[buffer.getInt(idsOffset + position * Integer.BYTES)];
+    }
+
+    private Range<V> rangeAt(int position) {
+        return new Range<>(minAt(position), maxAt(position), valueAt(position));
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapRangeSet{" +
+                "ranges=" + getValues() +
+                '}';
+    }
+}
@@ -0,0 +1,342 @@
+package com.stardevllc.range;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * An immutable set of non overlapping ranges where every change returns a new version. <br>
+ * The ranges are kept in a balanced (AVL) tree by min. A change only copies the nodes on the path to the changed range and shares everything else with the previous version, so {@link #add(Range)}, {@link #replace(Range)} and {@link #remove(long)} are O(log n) in time and memory and every version stays valid. Taking a snapshot is just keeping a reference. <br>
+ * It follows the same rules as {@link RangeSet}, adding a range that overlaps an existing one does nothing while replacing removes the overlapping ranges first. Instances can be shared between threads without synchronization.
+ *
+ * @param <V> The parameterized type of the value to represent
+ */
+public final class PersistentRangeSet<V> {
+    private static final PersistentRangeSet<?> EMPTY = new PersistentRangeSet<>(null, 0);
+    
+    private final Node<V> root;
+    private final int size;
+
+    private PersistentRangeSet(Node<V> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @param <V> The parameterized type of the value to represent
+     * @return The empty PersistentRangeSet
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentRangeSet<V> empty() {
+        return (PersistentRangeSet<V>) EMPTY;
+    }
+
+    /**
+     * Creates a PersistentRangeSet with the ranges of a RangeSet. The ranges are already sorted, so the tree is built balanced in O(n).
+     *
+     * @param rangeSet The RangeSet to copy the ranges from
+     * @param <V>      The parameterized type of the value to represent
+     * @return The new PersistentRangeSet
+     */
+    public static <V> PersistentRangeSet<V> copyOf(RangeSet<V> rangeSet) {
+        List<Range<V>> ranges = new ArrayList<>(rangeSet.getValues());
+        return new PersistentRangeSet<>(build(ranges, 0, ranges.size()), ranges.size());
+    }
+
+    /**
+     * Creates a new version with the range added. This checks the neighbouring ranges and prevents overlapping ranges.
+     *
+     * @param range The range to add
+     * @return The new version, or this version if the range overlaps an existing range
+     */
+    public PersistentRangeSet<V> add(Range<V> range) {
+        Range<V> floor = floor(root, range.min());
+        if (floor != null && floor.max() >= range.min()) {
+            return this;
+        }
+
+        Range<V> ceiling = ceiling(root, range.min());
+        if (ceiling != null && ceiling.min() <= range.max()) {
+            return this;
+        }
+
+        return new PersistentRangeSet<>(insert(root, range), size + 1);
+    }
+
+    /**
+     * Convenience method to add a range without having to create the instance directly
+     *
+     * @param min   The minimum value of the range
+     * @param max   The maximum value of the range
+     * @param value The value to be represented by this range.
+     * @return The new version, or this version if the range overlaps an existing range
+     */
+    public PersistentRangeSet<V> add(long min, long max, V value) {
+        return add(new Range<>(min, max, value));
+    }
+
+    /**
+     * Creates a new version with the range added after removing the ranges that it overlaps
+     *
+     * @param range The range to replace
+     * @return The new version
+     */
+    public PersistentRangeSet<V> replace(Range<V> range) {
+        Node<V> root = this.root;
+        int size = this.size;
+        Range<V> floor = floor(root, range.min());
+        if (floor != null && floor.max() >= range.min()) {
+            root = delete(root, floor.min());
+            size--;
+        }
+
+        Range<V> overlapping;
+        while ((overlapping = ceiling(root, range.min())) != null && overlapping.min() <= range.max()) {
+            root = delete(root, overlapping.min());
+            size--;
+        }
+
+        return new PersistentRangeSet<>(insert(root, range), size + 1);
+    }
+
+    /**
+     * Creates a new version without the range that contains the index
+     *
+     * @param index An index between the min and max values of the range to be removed
+     * @return The new version, or this version if no range contains the index
+     */
+    public PersistentRangeSet<V> remove(long index) {
+        Range<V> range = getRange(index);
+        if (range == null) {
+            return this;
+        }
+
+        return new PersistentRangeSet<>(delete(root, range.min()), size - 1);
+    }
+
+    /**
+     * Creates a new version without the first range that is represented by the <code>value</code>. Finding the range is O(n).
+     *
+     * @param value The value of the first range to be removed
+     * @return The new version, or this version if no range has the value
+     */
+    public PersistentRangeSet<V> remove(V value) {
+        for (Range<V> range : getValues()) {
+            if (range.value().equals(value)) {
+                return new PersistentRangeSet<>(delete(root, range.min()), size - 1);
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Gets the value represented by the index
+     *
+     * @param index The index of the value
+     * @return The value if this set represents that value or null if it does not.
+     */
+    public V get(long index) {
+        Range<V> range = getRange(index);
+        return range != null ? range.value() : null;
+    }
+
+    /**
+     * Gets the range that contains the index
+     *
+     * @param index The index to look up
+     * @return The range containing the index or null if no range contains it
+     */
+    public Range<V> getRange(long index) {
+        Range<V> floor = floor(root, index);
+        return floor != null && floor.max() >= index ? floor : null;
+    }
+
+    /**
+     * @return All Ranges of this version in order. The returned collection is not backed by this set.
+     */
+    public Collection<Range<V>> getValues() {
+        LinkedList<Range<V>> ranges = new LinkedList<>();
+        collect(root, ranges);
+        return ranges;
+    }
+
+    /**
+     * @return The minimum index or Long.MAX_VALUE if the set is empty
+     */
+    public long getMin() {
+        if (root == null) {
+            return Long.MAX_VALUE;
+        }
+
+        Node<V> node = root;
+        while (node.left != null) {
+            node = node.left;
+        }
+
+        return node.range.min();
+    }
+
+    /**
+     * @return The maximum index or Long.MIN_VALUE if the set is empty
+     */
+    public long getMax() {
+        if (root == null) {
+            return Long.MIN_VALUE;
+        }
+
+        Node<V> node = root;
+        while (node.right != null) {
+            node = node.right;
+        }
+
+        return node.range.max();
+    }
+
+    /**
+     * @return The amount of ranges in this version
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return A mutable RangeSet with the ranges of this version
+     */
+    public RangeSet<V> toRangeSet() {
+        return RangeSet.fromSorted(new ArrayList<>(getValues()));
+    }
+
+    private static <V> Range<V> floor(Node<V> node, long key) {
+        Range<V> floor = null;
+        while (node != null) {
+            if (node.range.min() <= key) {
+                floor = node.range;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+
+        return floor;
+    }
+
+    private static <V> Range<V> ceiling(Node<V> node, long key) {
+        Range<V> ceiling = null;
+        while (node != null) {
+            if (node.range.min() >= key) {
+                ceiling = node.range;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+
+        return ceiling;
+    }
+
+    private static <V> Node<V> insert(Node<V> node, Range<V> range) {
+        if (node == null) {
+            return new Node<>(range, null, null);
+        }
+
+        if (range.min() < node.range.min()) {
+            return balance(node.range, insert(node.left, range), node.right);
+        }
+
+        return balance(node.range, node.left, insert(node.right, range));
+    }
+
+    private static <V> Node<V> delete(Node<V> node, long min) {
+        if (node == null) {
+            return null;
+        }
+
+        if (min < node.range.min()) {
+            return balance(node.range, delete(node.left, min), node.right);
+        }
+
+        if (min > node.range.min()) {
+            return balance(node.range, node.left, delete(node.right, min));
+        }
+
+        if (node.left == null) {
+            return node.right;
+        }
+
+        if (node.right == null) {
+            return node.left;
+        }
+
+        Node<V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+
+        return balance(successor.range, node.left, delete(node.right, successor.range.min()));
+    }
+
+    private static <V> Node<V> balance(Range<V> range, Node<V> left, Node<V> right) {
+        int difference = height(left) - height(right);
+        if (difference > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.range, left.left, new Node<>(range, left.right, right));
+            }
+
+            return new Node<>(left.right.range, new Node<>(left.range, left.left, left.right.left), new Node<>(range, left.right.right, right));
+        }
+
+        if (difference < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.range, new Node<>(range, left, right.left), right.right);
+            }
+
+            return new Node<>(right.left.range, new Node<>(range, left, right.left.left), new Node<>(right.range, right.left.right, right.right));
+        }
+
+        return new Node<>(range, left, right);
+    }
+
+    private static <V> Node<V> build(List<Range<V>> ranges, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+
+        int middle = (from + to) >>> 1;
+        return new Node<>(ranges.get(middle), build(ranges, from, middle), build(ranges, middle + 1, to));
+    }
+
+    private static <V> void collect(Node<V> node, List<Range<V>> ranges) {
+        if (node != null) {
+            collect(node.left, ranges);
+            ranges.add(node.range);
+            collect(node.right, ranges);
+        }
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentRangeSet{" +
+                "ranges=" + getValues() +
+                '}';
+    }
+
+    private static final class Node<V> {
+        private final Range<V> range;
+        private final Node<V> left;
+        private final Node<V> right;
+        private final int height;
+
+        private Node(Range<V> range, Node<V> left, Node<V> right) {
+            this.range = range;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.stardevllc.range;
+
+import java.util.Arrays;
+
+/**
+ * The shared base of the RangeSets that map ranges to primitive values. <br>
+ * This keeps the mins and maxes in parallel arrays sorted by min and does all of the searching, overlap checks, shifting and growing of them. Subclasses only hold the value array and move it along with the bounds.
+ */
+abstract class PrimitiveRangeSet {
+    static final int DEFAULT_CAPACITY = 16;
+
+    long[] mins;
+    long[] maxs;
+    int size;
+
+    PrimitiveRangeSet(int capacity) {
+        this.mins = new long[capacity];
+        this.maxs = new long[capacity];
+    }
+
+    /**
+     * Removes the range that contains the index
+     *
+     * @param index An index between the min and max values of the range to be removed
+     * @return If a range was removed
+     */
+    public boolean remove(long index) {
+        int position = indexOf(index);
+        if (position < 0) {
+            return false;
+        }
+
+        delete(position, position + 1);
+        return true;
+    }
+
+    /**
+     * @param index The index to check
+     * @return If a range contains the index
+     */
+    public boolean contains(long index) {
+        return indexOf(index) >= 0;
+    }
+
+    /**
+     * @return The minimum index or Long.MAX_VALUE if the set is empty
+     */
+    public long getMin() {
+        return size == 0 ? Long.MAX_VALUE : mins[0];
+    }
+
+    /**
+     * @return The maximum index or Long.MIN_VALUE if the set is empty
+     */
+    public long getMax() {
+        return size == 0 ? Long.MIN_VALUE : maxs[size - 1];
+    }
+
+    /**
+     * @return The amount of ranges in this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Opens a slot for a range if it does not overlap an existing range
+     *
+     * @return The position to place the value of the range at, or -1 if nothing was added
+     */
+    final int addBounds(long min, long max) {
+        int position = RangeArrays.insertionIndex(mins, maxs, size, min, max);
+        if (position >= 0) {
+            insert(position, min, max);
+        }
+
+        return position;
+    }
+
+    /**
+     * Removes the ranges that overlap the range and opens a slot for it in their place
+     *
+     * @return The position to place the value of the range at
+     */
+    final int replaceBounds(long min, long max) {
+        int first = RangeArrays.firstIntersecting(mins, maxs, size, min);
+        delete(first, RangeArrays.overlapEnd(mins, size, first, max));
+        insert(first, min, max);
+        return first;
+    }
+
+    /**
+     * @return The position of the range that contains the index, or -1 if no range contains it
+     */
+    final int indexOf(long index) {
+        return RangeArrays.indexOf(mins, maxs, size, index);
+    }
+
+    /**
+     * Copies the bounds into a set that has room for at least as many ranges as this one
+     */
+    final void copyBoundsTo(PrimitiveRangeSet copy) {
+        System.arraycopy(mins, 0, copy.mins, 0, size);
+        System.arraycopy(maxs, 0, copy.maxs, 0, size);
+        copy.size = size;
+    }
+
+    /**
+     * Resizes the value array to the new capacity
+     */
+    abstract void resizeValues(int capacity);
+
+    /**
+     * Moves <code>length</code> values from one position to another, the same as {@link System#arraycopy(Object, int, Object, int, int)} within the value array
+     */
+    abstract void moveValues(int from, int to, int length);
+
+    /**
+     * Appends the value at the position for {@link #toString()}
+     */
+    abstract void appendValue(StringBuilder builder, int position);
+
+    private void insert(int position, long min, long max) {
+        if (size == mins.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, size * 2);
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+            resizeValues(capacity);
+        }
+
+        int moved = size - position;
+        System.arraycopy(mins, position, mins, position + 1, moved);
+        System.arraycopy(maxs, position, maxs, position + 1, moved);
+        moveValues(position, position + 1, moved);
+        mins[position] = min;
+        maxs[position] = max;
+        size++;
+    }
+
+    private void delete(int from, int to) {
+        int moved = size - to;
+        System.arraycopy(mins, to, mins, from, moved);
+        System.arraycopy(maxs, to, maxs, from, moved);
+        moveValues(to, from, moved);
+        size -= to - from;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(getClass().getSimpleName()).append("{ranges=[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+
+            builder.append('[').append(mins[i]).append(", ").append(maxs[i]).append("]=");
+            appendValue(builder, i);
+        }
+
+        return builder.append("]}").toString();
+    }
+}
@@ -1,19 +1,9 @@
 package com.stardevllc.range;
 
-import java.lang.reflect.Method;
+import java.util.function.UnaryOperator;
 
 public record Range<V> (long min, long max, V value) implements Comparable<Range<V>>, Cloneable {
     
-    private final static Method cloneMethod;
-    
-    static {
-        try {
-            cloneMethod = Object.class.getDeclaredMethod("clone");
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        }
-    }
-    
     public boolean contains(long number) {
         return number >= min && number <= max;
     }
@@ -35,14 +25,23 @@ public record Range<V> (long min, long max, V value) implements Comparable<Range
         return 0;
     }
 
+    /**
+     * Creates a copy of this range with the value passed through the copier
+     *
+     * @param copier Creates the value of the copy from this range's value, for example a copy constructor
+     * @return The copied range
+     */
+    public Range<V> copy(UnaryOperator<V> copier) {
+        return new Range<>(min, max, copier.apply(value));
+    }
+
+    /**
+     * Creates a copy of this range that shares the same value. Use {@link #copy(UnaryOperator)} to copy the value as well.
+     *
+     * @return The copied range
+     */
     @Override
     public Range<V> clone() {
-        if (this.value instanceof Cloneable) {
-            try {
-                return new Range<>(this.min, this.max, (V) cloneMethod.invoke(this.value));
-            } catch (Exception e) {}
-        }
-        
         return new Range<>(min, max, value);
     }
-}
\ No newline at end of file
+}
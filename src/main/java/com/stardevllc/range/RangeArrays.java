@@ -0,0 +1,189 @@
+package com.stardevllc.range;
+
+import java.util.Arrays;
+
+/**
+ * Shared helpers for the RangeSet implementations that store their ranges as parallel primitive arrays sorted by min
+ */
+final class RangeArrays {
+    
+    private RangeArrays() {
+    }
+
+    /**
+     * Finds the position of the range with the greatest min that is less than or equal to the index
+     *
+     * @param mins  The sorted min values
+     * @param size  The number of used entries in the array
+     * @param index The index to search for
+     * @return The position of the range or -1 if every range starts above the index
+     */
+    static int floorIndex(long[] mins, int size, long index) {
+        int position = Arrays.binarySearch(mins, 0, size, index);
+        return position >= 0 ? position : -position - 2;
+    }
+
+    /**
+     * Finds the position of the range that contains the index
+     *
+     * @param mins  The sorted min values
+     * @param maxs  The max values matching the mins
+     * @param size  The number of used entries in the arrays
+     * @param index The index to search for
+     * @return The position of the range or -1 if no range contains the index
+     */
+    static int indexOf(long[] mins, long[] maxs, int size, long index) {
+        int position = floorIndex(mins, size, index);
+        if (position >= 0 && index <= maxs[position]) {
+            return position;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Finds where a range can be inserted while keeping the ranges sorted, checking only the neighbouring ranges for overlaps
+     *
+     * @param mins The sorted min values
+     * @param maxs The max values matching the mins
+     * @param size The number of used entries in the arrays
+     * @param min  The minimum value of the new range
+     * @param max  The maximum value of the new range
+     * @return The position to insert the range at or -1 if it overlaps an existing range
+     */
+    static int insertionIndex(long[] mins, long[] maxs, int size, long min, long max) {
+        int position = floorIndex(mins, size, min);
+        if (position >= 0 && maxs[position] >= min) {
+            return -1;
+        }
+
+        int next = position + 1;
+        if (next < size && mins[next] <= max) {
+            return -1;
+        }
+
+        return next;
+    }
+
+    /**
+     * Finds the end of the ranges that overlap a window, for removing them before the window is replaced
+     *
+     * @param mins  The sorted min values
+     * @param size  The number of used entries in the array
+     * @param first The first range that intersects the window, see {@link #firstIntersecting(long[], long[], int, long)}
+     * @param max   The end of the window
+     * @return The position after the last range that starts at or before max
+     */
+    static int overlapEnd(long[] mins, int size, int first, long max) {
+        int end = first;
+        while (end < size && mins[end] <= max) {
+            end++;
+        }
+
+        return end;
+    }
+
+    /**
+     * Finds the position of the first range that ends at or after the index, which is the first range that can intersect a window starting at the index
+     *
+     * @param mins  The sorted min values
+     * @param maxs  The max values matching the mins
+     * @param size  The number of used entries in the arrays
+     * @param index The start of the window
+     * @return The position of the range or size if every range ends before the index
+     */
+    static int firstIntersecting(long[] mins, long[] maxs, int size, long index) {
+        int position = floorIndex(mins, size, index);
+        return position >= 0 && index <= maxs[position] ? position : position + 1;
+    }
+
+    /**
+     * Finds the position of the range that contains each of the keys. <br>
+     * If there are few keys compared to ranges each key is binary searched, otherwise the keys are sorted and resolved with a single walk over the ranges.
+     *
+     * @param mins The sorted min values
+     * @param maxs The max values matching the mins
+     * @param size The number of used entries in the arrays
+     * @param keys The keys to look up, in any order
+     * @param out  The array to place the positions in, -1 for keys without a range
+     */
+    static void indexOfAll(long[] mins, long[] maxs, int size, long[] keys, int[] out) {
+        if ((long) keys.length * 16 < size) {
+            for (int i = 0; i < keys.length; i++) {
+                out[i] = indexOf(mins, maxs, size, keys[i]);
+            }
+
+            return;
+        }
+
+        int range = 0;
+        for (int position : sortedOrder(keys, keys.length)) {
+            long key = keys[position];
+            while (range < size && maxs[range] < key) {
+                range++;
+            }
+
+            out[position] = range < size && mins[range] <= key ? range : -1;
+        }
+    }
+
+    /**
+     * Creates the order that sorts the keys ascending without moving or boxing them. <br>
+     * This is a stable merge sort over the positions, so it is O(n log n) in the worst case. Keys that are already sorted are detected in a single pass.
+     *
+     * @param keys The keys to sort by
+     * @param size The number of used entries in the array
+     * @return The positions of the keys in ascending key order
+     */
+    static int[] sortedOrder(long[] keys, int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+
+        if (isSorted(keys, size)) {
+            return order;
+        }
+
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int from = 0; from < size; from += width * 2) {
+                int middle = Math.min(from + width, size);
+                int to = Math.min(from + width * 2, size);
+                int left = from, right = middle, out = from;
+                while (left < middle && right < to) {
+                    buffer[out++] = keys[order[right]] < keys[order[left]] ? order[right++] : order[left++];
+                }
+                
+                while (left < middle) {
+                    buffer[out++] = order[left++];
+                }
+                
+                while (right < to) {
+                    buffer[out++] = order[right++];
+                }
+            }
+
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+
+        return order;
+    }
+
+    /**
+     * @param keys The keys to check
+     * @param size The number of used entries in the array
+     * @return If the keys are in ascending order
+     */
+    static boolean isSorted(long[] keys, int size) {
+        for (int i = 1; i < size; i++) {
+            if (keys[i] < keys[i - 1]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,286 @@
+package com.stardevllc.range;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws random values from a RangeSet where each range is weighted by its width (max - min + 1). <br>
+ * The sampler keeps a table of the cumulative widths of the ranges and binary searches it, so each draw is O(log n) and never lands in a gap between ranges. <br>
+ * The table is rebuilt on the next draw whenever the {@link RangeSet#getModCount()} of the backing set changes. The table is published as a whole, so a sampler can be shared between threads as long as the RangeSet is not changed while it is rebuilt.
+ *
+ * @param <V> The parameterized type of the value of the RangeSet
+ */
+public class RangeSampler<V> {
+    protected final RangeSet<V> rangeSet;
+    private volatile Table table;
+
+    /**
+     * Constructs a sampler over the provided RangeSet
+     *
+     * @param rangeSet The RangeSet to sample from
+     */
+    public RangeSampler(RangeSet<V> rangeSet) {
+        this.rangeSet = rangeSet;
+    }
+
+    /**
+     * Draws a random value. A range that is twice as wide as another is twice as likely to be drawn.
+     *
+     * @param random The source of randomness
+     * @return The value of the drawn range or null if the RangeSet is empty
+     */
+    @SuppressWarnings("unchecked")
+    public V sample(RandomGenerator random) {
+        Table table = table();
+        if (table.total == 0) {
+            return null;
+        }
+
+        return (V) table.values[table.pick(random)];
+    }
+
+    /**
+     * Fills the array with randomly drawn values. This is the same as calling {@link #sample(RandomGenerator)} for every element, but the table is only looked up once for the whole batch.
+     *
+     * @param random The source of randomness
+     * @param out    The array to fill, every element is null if the RangeSet is empty
+     */
+    @SuppressWarnings("unchecked")
+    public void sample(RandomGenerator random, V[] out) {
+        Table table = table();
+        if (table.total == 0) {
+            Arrays.fill(out, null);
+            return;
+        }
+
+        int[] positions = new int[out.length];
+        table.pickAll(random, positions);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (V) table.values[positions[i]];
+        }
+    }
+
+    /**
+     * Draws a random index that is contained by one of the ranges. Every contained index is equally likely.
+     *
+     * @param random The source of randomness
+     * @return The drawn index
+     * @throws NoSuchElementException If the RangeSet is empty
+     */
+    public long sampleKey(RandomGenerator random) {
+        Table table = table();
+        if (table.total == 0) {
+            throw new NoSuchElementException("The RangeSet is empty");
+        }
+
+        return table.pickKey(random);
+    }
+
+    /**
+     * Fills the array with randomly drawn indexes. This is the same as calling {@link #sampleKey(RandomGenerator)} for every element, but the table is only looked up once for the whole batch.
+     *
+     * @param random The source of randomness
+     * @param out    The array to fill
+     * @throws NoSuchElementException If the RangeSet is empty
+     */
+    public void sampleKeys(RandomGenerator random, long[] out) {
+        Table table = table();
+        if (table.total == 0) {
+            throw new NoSuchElementException("The RangeSet is empty");
+        }
+
+        table.pickKeys(random, out);
+    }
+
+    /**
+     * @return The total amount of indexes covered by the ranges
+     * @throws ArithmeticException If the total does not fit in a long
+     */
+    public long getTotalWidth() {
+        return table().total;
+    }
+
+    /**
+     * @return The RangeSet that this sampler draws from
+     */
+    public RangeSet<V> getRangeSet() {
+        return rangeSet;
+    }
+
+    /**
+     * Creates the table that draws are made from. Subclasses can override this to provide a different way of picking a range.
+     *
+     * @param modCount The modification count of the RangeSet before the table was created
+     * @return The new table
+     */
+    protected Table createTable(int modCount) {
+        return new Table(rangeSet, modCount);
+    }
+
+    protected final Table table() {
+        Table table = this.table;
+        int modCount = rangeSet.getModCount();
+        if (table == null || table.modCount != modCount) {
+            table = createTable(modCount);
+            this.table = table;
+        }
+
+        return table;
+    }
+
+    /**
+     * A snapshot of the ranges of the RangeSet along with the cumulative widths of the ranges
+     */
+    protected static class Table {
+        /**
+         * The amount of ranges at which batches are resolved by sorting the offsets and walking the table once. Below this the table fits in cache and a binary search per draw is cheaper than the sort.
+         */
+        protected static final int MERGE_THRESHOLD = 4096;
+        
+        protected final int modCount;
+        protected final long[] maxs;
+        protected final long[] cumulative;
+        protected final Object[] values;
+        protected final long total;
+
+        protected Table(RangeSet<?> rangeSet, int modCount) {
+            this.modCount = modCount;
+            //Sized from the same copy that is walked, a concurrent set can change between separate size() and getValues() calls
+            Collection<? extends Range<?>> ranges = rangeSet.getValues();
+            int size = ranges.size();
+            this.maxs = new long[size];
+            this.cumulative = new long[size];
+            this.values = new Object[size];
+            long total = 0;
+            int i = 0;
+            for (Range<?> range : ranges) {
+                total = Math.addExact(total, Math.addExact(Math.subtractExact(range.max(), range.min()), 1));
+                maxs[i] = range.max();
+                cumulative[i] = total;
+                values[i] = range.value();
+                i++;
+            }
+            
+            this.total = total;
+        }
+
+        /**
+         * @param random The source of randomness
+         * @return The position of a randomly picked range
+         */
+        protected int pick(RandomGenerator random) {
+            return indexOf(random.nextLong(total));
+        }
+
+        /**
+         * @param random The source of randomness
+         * @return A random index inside of a randomly picked range
+         */
+        protected long pickKey(RandomGenerator random) {
+            long offset = random.nextLong(total);
+            int position = indexOf(offset);
+            return maxs[position] - (cumulative[position] - 1 - offset);
+        }
+
+        /**
+         * Picks a range for every element of the array. <br>
+         * Large batches over large tables draw all of the offsets first, sort them and resolve them with a single walk over the cumulative widths. The positions are shuffled afterwards so that the order of the draws is still random.
+         *
+         * @param random    The source of randomness
+         * @param positions The array to fill with range positions
+         */
+        protected void pickAll(RandomGenerator random, int[] positions) {
+            if (!useMerge(positions.length)) {
+                for (int i = 0; i < positions.length; i++) {
+                    positions[i] = pick(random);
+                }
+                
+                return;
+            }
+
+            long[] offsets = sortedOffsets(random, positions.length);
+            int position = 0;
+            for (int i = 0; i < offsets.length; i++) {
+                while (cumulative[position] <= offsets[i]) {
+                    position++;
+                }
+                
+                positions[i] = position;
+            }
+
+            for (int i = positions.length - 1; i > 0; i--) {
+                int swap = random.nextInt(i + 1);
+                int temp = positions[i];
+                positions[i] = positions[swap];
+                positions[swap] = temp;
+            }
+        }
+
+        /**
+         * Picks a random index inside of a randomly picked range for every element of the array. <br>
+         * This batches the same way as {@link #pickAll(RandomGenerator, int[])}.
+         *
+         * @param random The source of randomness
+         * @param keys   The array to fill with indexes
+         */
+        protected void pickKeys(RandomGenerator random, long[] keys) {
+            if (!useMerge(keys.length)) {
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = pickKey(random);
+                }
+
+                return;
+            }
+
+            long[] offsets = sortedOffsets(random, keys.length);
+            int position = 0;
+            for (int i = 0; i < offsets.length; i++) {
+                while (cumulative[position] <= offsets[i]) {
+                    position++;
+                }
+                
+                keys[i] = maxs[position] - (cumulative[position] - 1 - offsets[i]);
+            }
+
+            for (int i = keys.length - 1; i > 0; i--) {
+                int swap = random.nextInt(i + 1);
+                long temp = keys[i];
+                keys[i] = keys[swap];
+                keys[swap] = temp;
+            }
+        }
+
+        private boolean useMerge(int count) {
+            return values.length >= MERGE_THRESHOLD && count >= values.length;
+        }
+
+        private long[] sortedOffsets(RandomGenerator random, int count) {
+            long[] offsets = new long[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = random.nextLong(total);
+            }
+            
+            Arrays.sort(offsets);
+            return offsets;
+        }
+
+        /**
+         * @param position The position of the range
+         * @return The width of the range
+         */
+        protected long widthOf(int position) {
+            return position == 0 ? cumulative[0] : cumulative[position] - cumulative[position - 1];
+        }
+
+        /**
+         * @param offset An offset between 0 and the total width
+         * @return The position of the range that the offset falls in
+         */
+        protected int indexOf(long offset) {
+            int position = Arrays.binarySearch(cumulative, offset);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.stardevllc.range;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.SortedSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.TreeSet;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * This represents a group of ranges that are related. Ideally there should not be a gap between the values
@@ -11,7 +19,9 @@ import java.util.TreeSet;
  * @param <V> The parameterized type of the value to represent
  */
 public class RangeSet<V> implements Cloneable {
-    protected SortedSet<Range<V>> ranges = new TreeSet<>();
+    protected NavigableSet<Range<V>> ranges = new TreeSet<>();
+    protected int modCount;
+    protected boolean coalescing;
 
     /**
      * Constructs an empty RangeSet
@@ -45,45 +55,124 @@ public class RangeSet<V> implements Cloneable {
     }
 
     /**
-     * Adds a Range to this RangeSet. This checks for existing values and prevents overlapping ranges.
+     * Adds a Range to this RangeSet. This checks for existing values and prevents overlapping ranges. <br>
+     * Only the ranges directly below and above the new range are checked, so this runs in O(log n). <br>
+     * If this RangeSet is {@link #isCoalescing() coalescing}, the range is merged with the ranges it touches that have an equal value.
      *
      * @param range The range to add
      */
     public RangeSet<V> add(Range<V> range) {
-        if (this.ranges.isEmpty()) {
-            this.ranges.add(range);
+        if (overlaps(range)) {
+            return this;
         }
 
-        for (Range<V> existing : this.ranges) {
-            if (existing.contains(range.min()) || existing.contains(range.max()) || range.contains(existing.min()) || range.contains(existing.max())) {
-                return this;
+        ranges.add(coalescing ? coalesce(range) : range);
+        modCount++;
+        return this;
+    }
+
+    /**
+     * Replaces the ranges that have overlapping mins and maxes. <br>
+     * If the range does not have any overlapping ranges, it is just added. It is merged with touching ranges the same as {@link #add(Range)} when coalescing.
+     *
+     * @param range The range to replace
+     */
+    public RangeSet<V> replace(Range<V> range) {
+        Range<V> first = ranges.ceiling(new Range<>(range.min(), range.min(), null));
+        if (first != null) {
+            Iterator<Range<V>> iterator = ranges.tailSet(first, true).iterator();
+            while (iterator.hasNext() && iterator.next().min() <= range.max()) {
+                iterator.remove();
             }
         }
 
-        ranges.add(range);
+        ranges.add(coalescing ? coalesce(range) : range);
+        modCount++;
         return this;
     }
 
     /**
-     * Replaces a range that already has overlapping mins and maxes. <br>
-     * If the range does not have any overlapping ranges, it is just added
+     * Checks the neighbouring ranges of the provided range to see if any existing range overlaps it
      *
-     * @param range The range to replace
+     * @param range The range to check
+     * @return If an existing range overlaps the provided range
      */
-    public RangeSet<V> replace(Range<V> range) {
-        if (this.ranges.isEmpty()) {
-            this.ranges.add(range);
+    protected boolean overlaps(Range<V> range) {
+        Range<V> floor = ranges.floor(range);
+        if (floor != null && floor.max() >= range.min()) {
+            return true;
         }
 
-        for (Range<V> existing : new TreeSet<>(this.ranges)) {
-            if (existing.contains(range.min()) || existing.contains(range.max()) || range.contains(existing.min()) || range.contains(existing.max())) {
-                this.ranges.remove(existing);
-                this.ranges.add(range);
-                return this;
+        Range<V> ceiling = ranges.ceiling(range);
+        return ceiling != null && ceiling.min() <= range.max();
+    }
+
+    /**
+     * Removes the ranges directly before and after the provided range if they touch it and have an equal value. <br>
+     * The range must not overlap any existing range.
+     *
+     * @param range The range to merge the neighbours into
+     * @return The range extended over the removed neighbours, or the same range if none were removed
+     */
+    protected Range<V> coalesce(Range<V> range) {
+        long min = range.min();
+        long max = range.max();
+        if (min != Long.MIN_VALUE) {
+            Range<V> before = ranges.floor(new Range<>(min - 1, min - 1, null));
+            if (before != null && before.max() == min - 1 && Objects.equals(before.value(), range.value())) {
+                ranges.remove(before);
+                min = before.min();
             }
         }
 
-        ranges.add(range);
+        if (max != Long.MAX_VALUE) {
+            Range<V> after = ranges.ceiling(new Range<>(max + 1, max + 1, null));
+            if (after != null && after.min() == max + 1 && Objects.equals(after.value(), range.value())) {
+                ranges.remove(after);
+                max = after.max();
+            }
+        }
+
+        return min == range.min() && max == range.max() ? range : new Range<>(min, max, range.value());
+    }
+
+    /**
+     * Turns coalescing on or off. While coalescing, added ranges are merged with the ranges they touch that have an equal value, so <code>[0,9] -&gt; A</code> and <code>[10,19] -&gt; A</code> are stored as <code>[0,19] -&gt; A</code>. <br>
+     * Turning it on also {@link #compact() compacts} the existing ranges so the set starts out minimal. As merged ranges are stored as one, removing by index or replacing part of a merged range removes all of it.
+     *
+     * @param coalescing If touching ranges with equal values should be merged
+     * @return This RangeSet
+     */
+    public RangeSet<V> setCoalescing(boolean coalescing) {
+        this.coalescing = coalescing;
+        if (coalescing) {
+            compact();
+        }
+
+        return this;
+    }
+
+    /**
+     * @return If touching ranges with equal values are merged when added
+     */
+    public boolean isCoalescing() {
+        return coalescing;
+    }
+
+    /**
+     * Merges every run of touching ranges that have equal values into a single range. Values are compared with {@link Objects#equals(Object, Object)}. <br>
+     * The ranges are walked once in order and loaded back in O(n).
+     *
+     * @return This RangeSet
+     */
+    public RangeSet<V> compact() {
+        List<Range<V>> compacted = compacted(ranges);
+        if (compacted.size() != ranges.size()) {
+            ranges.clear();
+            ranges.addAll(new SortedRangeList<>(compacted));
+            modCount++;
+        }
+
         return this;
     }
 
@@ -108,11 +197,9 @@ public class RangeSet<V> implements Cloneable {
      * @param value The value represented by the new range.
      */
     public RangeSet<V> addMax(long max, V value) {
-        Range<V> lastRange = ranges.last();
-
         long min = 0;
-        if (lastRange != null) {
-            min = lastRange.max() + 1;
+        if (size() > 0) {
+            min = getMax() + 1;
         }
 
         long rangeMax = min + max;
@@ -130,11 +217,9 @@ public class RangeSet<V> implements Cloneable {
      * @param value The value represented by the new range.
      */
     public RangeSet<V> addMin(long min, V value) {
-        Range<V> lastRange = ranges.last();
-
         long max = 0L;
-        if (lastRange != null) {
-            max = lastRange.min() - 1;
+        if (size() > 0) {
+            max = getMin() - 1;
         }
 
         long rangeMin = max - min;
@@ -149,14 +234,13 @@ public class RangeSet<V> implements Cloneable {
      * @param index An index between the min and max values of the range to be removed
      */
     public Range<V> remove(long index) {
-        for (Range<V> range : this.ranges) {
-            if (range.contains(index)) {
-                ranges.remove(range);
-                return range;
-            }
+        Range<V> range = getRange(index);
+        if (range != null) {
+            ranges.remove(range);
+            modCount++;
         }
 
-        return null;
+        return range;
     }
 
     /**
@@ -169,6 +253,7 @@ public class RangeSet<V> implements Cloneable {
         for (Range<V> range : this.ranges) {
             if (range.value().equals(value)) {
                 ranges.remove(range);
+                modCount++;
                 return range;
             }
         }
@@ -184,15 +269,126 @@ public class RangeSet<V> implements Cloneable {
      * @return The value if this RangeSet represents that value or null if it does not.
      */
     public V get(long index) {
-        for (Range<V> range : this.ranges) {
-            if (range.contains(index)) {
-                return range.value();
-            }
+        Range<V> range = getRange(index);
+        return range != null ? range.value() : null;
+    }
+
+    /**
+     * Gets the range that contains the index. <br>
+     * This uses the sorted order of the ranges to find the closest range with a min at or below the index, so it runs in O(log n)
+     *
+     * @param index The index to look up
+     * @return The range containing the index or null if no range contains it
+     */
+    public Range<V> getRange(long index) {
+        Range<V> floor = ranges.floor(new Range<>(index, index, null));
+        if (floor != null && floor.contains(index)) {
+            return floor;
         }
 
         return null;
     }
 
+    /**
+     * Passes every range that contains at least one index between min and max to the consumer, in order. The ranges are passed whole, they are not cut to the window. Nothing is passed if min is greater than max. <br>
+     * The first range is found in O(log n) and only the k matching ranges are visited after it, so this is O(log n + k) and does not copy the set.
+     *
+     * @param min      The minimum index of the window
+     * @param max      The maximum index of the window
+     * @param consumer The consumer to pass the ranges to
+     */
+    public void forEachIntersecting(long min, long max, Consumer<? super Range<V>> consumer) {
+        if (min > max) {
+            return;
+        }
+
+        Range<V> first = ranges.ceiling(new Range<>(min, min, null));
+        if (first == null) {
+            return;
+        }
+
+        for (Range<V> range : ranges.tailSet(first, true)) {
+            if (range.min() > max) {
+                break;
+            }
+
+            consumer.accept(range);
+        }
+    }
+
+    /**
+     * Creates a new RangeSet with every range that contains at least one index between min and max. The ranges are copied whole, they are not cut to the window. <br>
+     * This uses {@link #forEachIntersecting(long, long, Consumer)}, so only the k matching ranges are copied in O(log n + k).
+     *
+     * @param min The minimum index of the window
+     * @param max The maximum index of the window
+     * @return The new RangeSet
+     */
+    public RangeSet<V> subSet(long min, long max) {
+        List<Range<V>> intersecting = new ArrayList<>();
+        forEachIntersecting(min, max, intersecting::add);
+        return fromSorted(intersecting);
+    }
+
+    /**
+     * Gets the values represented by a batch of indexes. This is the same as calling {@link #get(long)} for every index. <br>
+     * Small batches are looked up one at a time. Larger batches are sorted (which is skipped when they are already sorted) and resolved with a single walk over the ranges, so the whole batch is O(n + m log m) instead of O(m log n).
+     *
+     * @param indexes The indexes to look up, in any order
+     * @param out     The array to place the values in, at the same position as their index. Indexes without a value get null
+     */
+    public void getAll(long[] indexes, V[] out) {
+        if (useSingleLookups(indexes.length)) {
+            for (int i = 0; i < indexes.length; i++) {
+                out[i] = get(indexes[i]);
+            }
+
+            return;
+        }
+
+        Iterator<Range<V>> iterator = ranges.iterator();
+        Range<V> range = iterator.hasNext() ? iterator.next() : null;
+        for (int position : RangeArrays.sortedOrder(indexes, indexes.length)) {
+            long index = indexes[position];
+            while (range != null && range.max() < index) {
+                range = iterator.hasNext() ? iterator.next() : null;
+            }
+
+            out[position] = range != null && range.min() <= index ? range.value() : null;
+        }
+    }
+
+    /**
+     * Gets the position of the range containing each index of a batch, where the first range is 0. <br>
+     * A tree can not tell the position of a range without counting the ranges before it, so unlike {@link #getAll(long[], Object[])} this always sorts the indexes and walks the ranges in order. This is O(n + m log m) for m indexes even for a batch of one. <br>
+     * {@link ArrayRangeSet} and the sets returned by {@link #freeze()} find each position with a binary search, use them when positions are looked up often.
+     *
+     * @param indexes The indexes to look up, in any order
+     * @param out     The array to place the range positions in, at the same position as their index. Indexes without a range get -1
+     */
+    public void indexOfAll(long[] indexes, int[] out) {
+        Iterator<Range<V>> iterator = ranges.iterator();
+        Range<V> range = iterator.hasNext() ? iterator.next() : null;
+        int rangePosition = 0;
+        for (int position : RangeArrays.sortedOrder(indexes, indexes.length)) {
+            long index = indexes[position];
+            while (range != null && range.max() < index) {
+                range = iterator.hasNext() ? iterator.next() : null;
+                rangePosition++;
+            }
+
+            out[position] = range != null && range.min() <= index ? rangePosition : -1;
+        }
+    }
+
+    /**
+     * @param count The amount of indexes in a batch
+     * @return If the batch is small enough compared to this RangeSet that looking up each index is cheaper than walking every range
+     */
+    protected boolean useSingleLookups(int count) {
+        return (long) count * 16 < size();
+    }
+
     /**
      * Gets all of the ranges that represent this RangeSet. The returned collection is not backed by the main one and changes to either do not affect the other.
      *
@@ -203,44 +399,308 @@ public class RangeSet<V> implements Cloneable {
     }
 
     /**
-     * Gets the absolute minimum that this RangeSet represents. This does not take any gaps into account.
+     * Gets the absolute minimum that this RangeSet represents. This does not take any gaps into account. <br>
+     * As the ranges are sorted and do not overlap, this is the min of the first range.
      *
      * @return The minimum index or Long.MAX_VALUE if none was found (empty RangeSet)
      */
     public long getMin() {
-        long min = Long.MAX_VALUE;
-        for (Range<V> range : ranges) {
-            if (range.min() < min) {
-                min = range.min();
-            }
+        if (ranges.isEmpty()) {
+            return Long.MAX_VALUE;
         }
 
-        return min;
+        return ranges.first().min();
     }
 
     /**
-     * Gets the absolute maximum that this RangeSet represents. This does not take any gaps into account.
+     * Gets the absolute maximum that this RangeSet represents. This does not take any gaps into account. <br>
+     * As the ranges are sorted and do not overlap, this is the max of the last range.
      *
      * @return The maximum index or Long.MIN_VALUE if none was found (empty RangeSet)
      */
     public long getMax() {
-        long max = Long.MIN_VALUE;
+        if (ranges.isEmpty()) {
+            return Long.MIN_VALUE;
+        }
+
+        return ranges.last().max();
+    }
+    
+    /**
+     * Compiles the current ranges into an {@link ImmutableRangeSet}. <br>
+     * The returned set is not backed by this one, changes made to this RangeSet afterwards are not visible in it.
+     *
+     * @return A read only snapshot of this RangeSet that can be shared between threads
+     */
+    public ImmutableRangeSet<V> freeze() {
+        Collection<Range<V>> ranges = getValues();
+        int size = ranges.size();
+        long[] mins = new long[size];
+        long[] maxs = new long[size];
+        Object[] values = new Object[size];
+        int i = 0;
         for (Range<V> range : ranges) {
-            if (range.max() > max) {
-                max = range.max();
-            }
+            mins[i] = range.min();
+            maxs[i] = range.max();
+            values[i] = range.value();
+            i++;
         }
-        return max;
+
+        return new ImmutableRangeSet<>(mins, maxs, values);
+    }
+
+    /**
+     * Gets a counter that changes every time ranges are added or removed. <br>
+     * This can be used to tell if data derived from this RangeSet, like a {@link RangeSampler}, needs to be rebuilt.
+     *
+     * @return The current modification count
+     */
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * @return The amount of ranges in this RangeSet
+     */
+    public int size() {
+        return ranges.size();
     }
     
+    /**
+     * Creates a copy of this RangeSet that shares the values with this one. <br>
+     * The ranges are already sorted and do not overlap, so they are copied over in order in O(n) without any overlap checks.
+     *
+     * @return The copy
+     */
+    public RangeSet<V> copy() {
+        RangeSet<V> copy = new RangeSet<>();
+        copy.coalescing = coalescing;
+        if (!ranges.isEmpty()) {
+            copy.ranges.addAll(ranges);
+        }
+
+        return copy;
+    }
+
+    /**
+     * Creates a copy of this RangeSet with every value passed through the copier. This is O(n) the same as {@link #copy()}.
+     *
+     * @param copier Creates the value of a copied range from the original value, for example a copy constructor
+     * @return The copy
+     */
+    public RangeSet<V> copy(UnaryOperator<V> copier) {
+        List<Range<V>> copied = new ArrayList<>(size());
+        for (Range<V> range : getValues()) {
+            copied.add(range.copy(copier));
+        }
+
+        RangeSet<V> copy = fromSorted(copied);
+        copy.coalescing = coalescing;
+        return copy;
+    }
+
+    /**
+     * @return The same as {@link #copy()}
+     */
     @Override
     public RangeSet<V> clone() {
-        RangeSet<V> clone = new RangeSet<>();
-        for (Range<V> range : this.ranges) {
-            clone.add(range.clone());
+        return copy();
+    }
+
+    /**
+     * Creates a new RangeSet covering every index that is covered by this RangeSet or the other one. <br>
+     * Both sets are walked once in order, so this is O(n + m). Parts covered by only one set keep their value, parts covered by both get the combined value. <br>
+     * Neither set is changed.
+     *
+     * @param other   The RangeSet to combine with
+     * @param combine Creates the value of an index covered by both sets from the value in this set and the value in the other set
+     * @return The new RangeSet
+     */
+    public RangeSet<V> union(RangeSet<V> other, BinaryOperator<V> combine) {
+        return merge(getValues(), other.getValues(), true, true, combine);
+    }
+
+    /**
+     * Creates a new RangeSet covering only the indexes that are covered by both this RangeSet and the other one. <br>
+     * Both sets are walked once in order, so this is O(n + m). Neither set is changed.
+     *
+     * @param other   The RangeSet to intersect with
+     * @param combine Creates the value of an index from the value in this set and the value in the other set
+     * @return The new RangeSet
+     */
+    public RangeSet<V> intersect(RangeSet<V> other, BinaryOperator<V> combine) {
+        return merge(getValues(), other.getValues(), false, false, combine);
+    }
+
+    /**
+     * Creates a new RangeSet covering the indexes of this RangeSet that are not covered by the other one. Ranges that are cut keep their value. <br>
+     * Both sets are walked once in order, so this is O(n + m). Neither set is changed.
+     *
+     * @param other The RangeSet with the indexes to remove
+     * @return The new RangeSet
+     */
+    public RangeSet<V> subtract(RangeSet<?> other) {
+        //The values of the other set are never read when only keeping the parts of this set
+        @SuppressWarnings("unchecked")
+        Collection<Range<V>> removed = (Collection<Range<V>>) (Collection<?>) other.getValues();
+        return merge(getValues(), removed, true, false, null);
+    }
+
+    /**
+     * Creates a new RangeSet covering the gaps of this RangeSet between min and max, all represented by the same value. <br>
+     * This walks the ranges once in order, so this is O(n).
+     *
+     * @param min   The minimum index of the gaps to include
+     * @param max   The maximum index of the gaps to include
+     * @param value The value to be represented by the gaps
+     * @return The new RangeSet
+     */
+    public RangeSet<V> complement(long min, long max, V value) {
+        if (min > max) {
+            throw new IllegalArgumentException("The min " + min + " is greater than the max " + max);
+        }
+
+        List<Range<V>> gaps = new ArrayList<>();
+        long start = min;
+        for (Range<V> range : getValues()) {
+            if (range.max() < start) {
+                continue;
+            }
+
+            if (range.min() > max) {
+                break;
+            }
+
+            if (range.min() > start) {
+                gaps.add(new Range<>(start, range.min() - 1, value));
+            }
+
+            if (range.max() >= max) {
+                return fromSorted(gaps);
+            }
+
+            start = range.max() + 1;
         }
-        
-        return clone;
+
+        gaps.add(new Range<>(start, max, value));
+        return fromSorted(gaps);
+    }
+
+    /**
+     * Walks two sorted lists of ranges at the same time and collects the parts that are covered by only the first, only the second or both into a new RangeSet
+     */
+    private static <V> RangeSet<V> merge(Collection<Range<V>> first, Collection<Range<V>> second, boolean keepFirst, boolean keepSecond, BinaryOperator<V> combine) {
+        List<Range<V>> merged = new ArrayList<>();
+        Iterator<Range<V>> firstIterator = first.iterator();
+        Iterator<Range<V>> secondIterator = second.iterator();
+        Range<V> a = firstIterator.hasNext() ? firstIterator.next() : null;
+        Range<V> b = secondIterator.hasNext() ? secondIterator.next() : null;
+        long aMin = a != null ? a.min() : 0;
+        long bMin = b != null ? b.min() : 0;
+        while ((a != null || keepSecond) && (b != null || keepFirst) && (a != null || b != null)) {
+            if (b == null || (a != null && a.max() < bMin)) {
+                if (keepFirst) {
+                    merged.add(new Range<>(aMin, a.max(), a.value()));
+                }
+
+                a = firstIterator.hasNext() ? firstIterator.next() : null;
+                aMin = a != null ? a.min() : 0;
+            } else if (a == null || b.max() < aMin) {
+                if (keepSecond) {
+                    merged.add(new Range<>(bMin, b.max(), b.value()));
+                }
+
+                b = secondIterator.hasNext() ? secondIterator.next() : null;
+                bMin = b != null ? b.min() : 0;
+            } else if (aMin < bMin) {
+                if (keepFirst) {
+                    merged.add(new Range<>(aMin, bMin - 1, a.value()));
+                }
+
+                aMin = bMin;
+            } else if (bMin < aMin) {
+                if (keepSecond) {
+                    merged.add(new Range<>(bMin, aMin - 1, b.value()));
+                }
+
+                bMin = aMin;
+            } else {
+                long end = Math.min(a.max(), b.max());
+                if (combine != null) {
+                    merged.add(new Range<>(aMin, end, combine.apply(a.value(), b.value())));
+                }
+
+                if (a.max() == end) {
+                    a = firstIterator.hasNext() ? firstIterator.next() : null;
+                    aMin = a != null ? a.min() : 0;
+                } else {
+                    aMin = end + 1;
+                }
+
+                if (b.max() == end) {
+                    b = secondIterator.hasNext() ? secondIterator.next() : null;
+                    bMin = b != null ? b.min() : 0;
+                } else {
+                    bMin = end + 1;
+                }
+            }
+        }
+
+        return fromSorted(merged);
+    }
+
+    /**
+     * Merges the runs of touching ranges with equal values in a sorted collection of ranges
+     */
+    static <V> List<Range<V>> compacted(Collection<Range<V>> ranges) {
+        List<Range<V>> compacted = new ArrayList<>(ranges.size());
+        Range<V> current = null;
+        for (Range<V> range : ranges) {
+            if (current != null && touching(current.max(), range.min()) && Objects.equals(current.value(), range.value())) {
+                current = new Range<>(current.min(), range.max(), current.value());
+            } else {
+                if (current != null) {
+                    compacted.add(current);
+                }
+
+                current = range;
+            }
+        }
+
+        if (current != null) {
+            compacted.add(current);
+        }
+
+        return compacted;
+    }
+
+    /**
+     * @return If a range ending at max is directly followed by a range starting at min
+     */
+    static boolean touching(long max, long min) {
+        return max != Long.MAX_VALUE && max + 1 == min;
+    }
+
+    /**
+     * Creates a RangeSet from ranges that are already in order without overlaps, using the linear time construction of the TreeSet
+     */
+    static <V> RangeSet<V> fromSorted(List<Range<V>> sorted) {
+        RangeSet<V> rangeSet = new RangeSet<>();
+        if (!sorted.isEmpty()) {
+            rangeSet.ranges.addAll(new SortedRangeList<>(sorted));
+        }
+
+        return rangeSet;
+    }
+
+    /**
+     * Creates a Builder for loading a large amount of ranges at once
+     *
+     * @param <V> The parameterized type of the value to represent
+     * @return A new empty Builder
+     */
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
     }
 
     /**
@@ -252,4 +712,163 @@ public class RangeSet<V> implements Cloneable {
                 "ranges=" + ranges +
                 '}';
     }
-}
\ No newline at end of file
+
+    /**
+     * Collects ranges as primitive mins and maxes and creates a RangeSet from them in one go. <br>
+     * The ranges can be added in any order. They are sorted once when building and checked for overlaps in a single pass, so building is O(n log n) in total instead of paying for an overlap check and tree insert per range. <br>
+     * The builder can continue to be used after building, each built set is independent of it.
+     *
+     * @param <V> The parameterized type of the value to represent
+     */
+    public static class Builder<V> {
+        private long[] mins;
+        private long[] maxs;
+        private Object[] values;
+        private int size;
+
+        /**
+         * Constructs an empty Builder
+         */
+        public Builder() {
+            this(16);
+        }
+
+        /**
+         * Constructs an empty Builder with room for <code>expectedSize</code> ranges before it needs to grow
+         *
+         * @param expectedSize The amount of ranges that are expected to be added
+         */
+        public Builder(int expectedSize) {
+            this.mins = new long[expectedSize];
+            this.maxs = new long[expectedSize];
+            this.values = new Object[expectedSize];
+        }
+
+        /**
+         * Adds a range to be built
+         *
+         * @param min   The minimum value of the range
+         * @param max   The maximum value of the range
+         * @param value The value to be represented by this range.
+         * @throws IllegalArgumentException If the min is greater than the max
+         */
+        public Builder<V> add(long min, long max, V value) {
+            if (min > max) {
+                throw new IllegalArgumentException("Range min " + min + " is greater than its max " + max);
+            }
+
+            if (size == mins.length) {
+                int capacity = Math.max(16, size * 2);
+                mins = Arrays.copyOf(mins, capacity);
+                maxs = Arrays.copyOf(maxs, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+
+            mins[size] = min;
+            maxs[size] = max;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        /**
+         * Adds all of the ranges that have been added to another builder
+         *
+         * @param other The builder to copy the ranges from
+         */
+        public Builder<V> addAll(Builder<V> other) {
+            int required = size + other.size;
+            if (required > mins.length) {
+                int capacity = Math.max(required, size * 2);
+                mins = Arrays.copyOf(mins, capacity);
+                maxs = Arrays.copyOf(maxs, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+
+            System.arraycopy(other.mins, 0, mins, size, other.size);
+            System.arraycopy(other.maxs, 0, maxs, size, other.size);
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size = required;
+            return this;
+        }
+
+        /**
+         * @return The amount of ranges that have been added
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Builds a RangeSet backed by a TreeSet, the same as constructing one and adding all of the ranges
+         *
+         * @return The new RangeSet
+         * @throws IllegalArgumentException If any of the ranges overlap
+         */
+        public RangeSet<V> build() {
+            int[] order = sortedOrder();
+            List<Range<V>> sorted = new ArrayList<>(size);
+            for (int position : order) {
+                sorted.add(new Range<>(mins[position], maxs[position], valueAt(position)));
+            }
+
+            return fromSorted(sorted);
+        }
+
+        /**
+         * Builds an ArrayRangeSet without creating any Range instances
+         *
+         * @return The new ArrayRangeSet
+         * @throws IllegalArgumentException If any of the ranges overlap
+         */
+        public ArrayRangeSet<V> buildArray() {
+            int capacity = Math.max(size, 16);
+            long[] sortedMins = new long[capacity];
+            long[] sortedMaxs = new long[capacity];
+            Object[] sortedValues = new Object[capacity];
+            copySorted(sortedMins, sortedMaxs, sortedValues);
+            return new ArrayRangeSet<>(sortedMins, sortedMaxs, sortedValues, size);
+        }
+
+        /**
+         * Builds an ImmutableRangeSet without creating any Range instances
+         *
+         * @return The new ImmutableRangeSet
+         * @throws IllegalArgumentException If any of the ranges overlap
+         */
+        public ImmutableRangeSet<V> buildImmutable() {
+            long[] sortedMins = new long[size];
+            long[] sortedMaxs = new long[size];
+            Object[] sortedValues = new Object[size];
+            copySorted(sortedMins, sortedMaxs, sortedValues);
+            return new ImmutableRangeSet<>(sortedMins, sortedMaxs, sortedValues);
+        }
+
+        private void copySorted(long[] sortedMins, long[] sortedMaxs, Object[] sortedValues) {
+            int[] order = sortedOrder();
+            for (int i = 0; i < size; i++) {
+                sortedMins[i] = mins[order[i]];
+                sortedMaxs[i] = maxs[order[i]];
+                sortedValues[i] = values[order[i]];
+            }
+        }
+
+        private int[] sortedOrder() {
+            int[] order = RangeArrays.sortedOrder(mins, size);
+            for (int i = 1; i < order.length; i++) {
+                int previous = order[i - 1];
+                int current = order[i];
+                if (maxs[previous] >= mins[current]) {
+                    throw new IllegalArgumentException("Range [" + mins[current] + ", " + maxs[current] + "] overlaps range [" + mins[previous] + ", " + maxs[previous] + "]");
+                }
+            }
+
+            return order;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V valueAt(int position) {
+            return (V) values[position];
+        }
+    }
+}
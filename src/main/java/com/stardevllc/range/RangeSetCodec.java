@@ -0,0 +1,430 @@
+package com.stardevllc.range;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact, versioned binary format for RangeSets. <br>
+ * After a 5 byte header (magic and format version) the data is written in length prefixed blocks of up to 64KB, ending with an empty block, so a reader never consumes bytes past the end of the set. <br>
+ * The data holds the range count, the distinct values (written once each with a {@link RangeValueCodec}) and then every range in order as varints: the gap since the previous range's max, the width and the id of the value. Sorted ranges with small gaps and widths take only a few bytes each.
+ *
+ * @param <V> The parameterized type of the value
+ */
+public final class RangeSetCodec<V> {
+    /**
+     * The bytes "RSC" followed by a format marker
+     */
+    static final int MAGIC = 0x52534301;
+    static final int VERSION = 1;
+    private static final int BLOCK_BYTES = 64 * 1024;
+    /**
+     * The counts come from the data, so at most this many entries are allocated up front and the rest grow as ranges are actually read
+     */
+    private static final int MAX_INITIAL_CAPACITY = 4096;
+    
+    private final RangeValueCodec<V> valueCodec;
+
+    /**
+     * Constructs a codec that uses the provided codec for the values of the ranges
+     *
+     * @param valueCodec The codec for the values
+     */
+    public RangeSetCodec(RangeValueCodec<V> valueCodec) {
+        this.valueCodec = valueCodec;
+    }
+
+    /**
+     * Writes a RangeSet to a stream. The stream is not flushed or closed.
+     *
+     * @param rangeSet The RangeSet to write
+     * @param out      The stream to write to
+     * @throws IOException If the stream could not be written to
+     */
+    public void writeTo(RangeSet<V> rangeSet, OutputStream out) throws IOException {
+        encode(rangeSet, new BlockWriter(out, null));
+    }
+
+    /**
+     * Writes a RangeSet to a buffer, starting at its position
+     *
+     * @param rangeSet The RangeSet to write
+     * @param out      The buffer to write to
+     * @throws IOException                      If a value could not be written
+     * @throws java.nio.BufferOverflowException If the buffer does not have enough room
+     */
+    public void writeTo(RangeSet<V> rangeSet, ByteBuffer out) throws IOException {
+        encode(rangeSet, new BlockWriter(null, out));
+    }
+
+    /**
+     * Reads a RangeSet from a stream. Only the bytes of the set are consumed, the stream is left at the byte after it.
+     *
+     * @param in The stream to read from
+     * @return The RangeSet that was read
+     * @throws IOException If the stream could not be read or does not contain a RangeSet in this format
+     */
+    public RangeSet<V> readFrom(InputStream in) throws IOException {
+        return decode(new BlockReader(in, null));
+    }
+
+    /**
+     * Reads a RangeSet from a buffer, starting at its position. The position is left at the byte after the set.
+     *
+     * @param in The buffer to read from
+     * @return The RangeSet that was read
+     * @throws IOException If the buffer does not contain a RangeSet in this format
+     */
+    public RangeSet<V> readFrom(ByteBuffer in) throws IOException {
+        return decode(new BlockReader(null, in));
+    }
+
+    private void encode(RangeSet<V> rangeSet, BlockWriter writer) throws IOException {
+        Collection<Range<V>> ranges = rangeSet.getValues();
+        int[] ids = new int[ranges.size()];
+        Map<V, Integer> idsByValue = new HashMap<>();
+        List<V> values = new ArrayList<>();
+        int i = 0;
+        for (Range<V> range : ranges) {
+            Integer id = idsByValue.get(range.value());
+            if (id == null) {
+                id = values.size();
+                idsByValue.put(range.value(), id);
+                values.add(range.value());
+            }
+
+            ids[i++] = id;
+        }
+
+        writer.writeHeader();
+        writer.writeVarLong(ids.length);
+        writer.writeVarLong(values.size());
+        DataOutputStream data = new DataOutputStream(writer);
+        for (V value : values) {
+            writer.write(value != null ? 1 : 0);
+            if (value != null) {
+                valueCodec.write(value, data);
+            }
+        }
+
+        long previousMax = 0;
+        i = 0;
+        for (Range<V> range : ranges) {
+            if (i == 0) {
+                writer.writeVarLong((range.min() << 1) ^ (range.min() >> 63));
+            } else {
+                writer.writeVarLong(range.min() - previousMax - 1);
+            }
+
+            writer.writeVarLong(range.max() - range.min());
+            writer.writeVarLong(ids[i++]);
+            previousMax = range.max();
+        }
+
+        writer.finish();
+    }
+
+    private RangeSet<V> decode(BlockReader reader) throws IOException {
+        reader.readHeader();
+        long size = reader.readVarLong();
+        long valueCount = reader.readVarLong();
+        if (Long.compareUnsigned(size, Integer.MAX_VALUE) > 0 || Long.compareUnsigned(valueCount, size) > 0) {
+            throw new IOException("Corrupt RangeSet data, invalid counts " + Long.toUnsignedString(size) + " and " + Long.toUnsignedString(valueCount));
+        }
+
+        List<V> values = new ArrayList<>((int) Math.min(valueCount, MAX_INITIAL_CAPACITY));
+        DataInputStream data = new DataInputStream(reader);
+        for (long i = 0; i < valueCount; i++) {
+            int present = reader.read();
+            if (present < 0) {
+                throw new EOFException("RangeSet data ended inside of the values");
+            }
+
+            values.add(present != 0 ? valueCodec.read(data) : null);
+        }
+
+        RangeSet.Builder<V> builder = new RangeSet.Builder<>((int) Math.min(size, MAX_INITIAL_CAPACITY));
+        long previousMax = 0;
+        try {
+            for (long i = 0; i < size; i++) {
+                long min;
+                if (i == 0) {
+                    long encoded = reader.readVarLong();
+                    min = (encoded >>> 1) ^ -(encoded & 1);
+                } else {
+                    //The gap and width are unsigned, the differences wrap around the same way they did when written
+                    long gap = reader.readVarLong();
+                    if (previousMax == Long.MAX_VALUE || Long.compareUnsigned(gap, Long.MAX_VALUE - previousMax - 1) > 0) {
+                        throw new IOException("Corrupt RangeSet data, range " + i + " starts past the maximum index");
+                    }
+
+                    min = previousMax + 1 + gap;
+                }
+
+                long width = reader.readVarLong();
+                if (Long.compareUnsigned(width, Long.MAX_VALUE - min) > 0) {
+                    throw new IOException("Corrupt RangeSet data, range " + i + " ends past the maximum index");
+                }
+
+                long max = min + width;
+                long id = reader.readVarLong();
+                if (Long.compareUnsigned(id, values.size()) >= 0) {
+                    throw new IOException("Corrupt RangeSet data, value id " + Long.toUnsignedString(id) + " out of bounds");
+                }
+
+                builder.add(min, max, values.get((int) id));
+                previousMax = max;
+            }
+
+            reader.finish();
+            return builder.build();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt RangeSet data, " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Collects bytes into a block and writes it out with its length once it is full
+     */
+    private static final class BlockWriter extends OutputStream {
+        private final OutputStream out;
+        private final ByteBuffer buffer;
+        private final byte[] block = new byte[BLOCK_BYTES];
+        private final byte[] prefix = new byte[5];
+        private int position;
+
+        private BlockWriter(OutputStream out, ByteBuffer buffer) {
+            this.out = out;
+            this.buffer = buffer;
+        }
+
+        private void writeHeader() throws IOException {
+            emit(new byte[] {(byte) (MAGIC >>> 24), (byte) (MAGIC >>> 16), (byte) (MAGIC >>> 8), (byte) MAGIC, VERSION}, 0, 5);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (position == block.length) {
+                flushBlock();
+            }
+
+            block[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (position == block.length) {
+                    flushBlock();
+                }
+
+                int copied = Math.min(length, block.length - position);
+                System.arraycopy(bytes, offset, block, position, copied);
+                position += copied;
+                offset += copied;
+                length -= copied;
+            }
+        }
+
+        /**
+         * Writes the value as an unsigned varint, 7 bits per byte with the high bit marking that more bytes follow
+         */
+        private void writeVarLong(long value) throws IOException {
+            if (position > block.length - 10) {
+                flushBlock();
+            }
+
+            while ((value & ~0x7FL) != 0) {
+                block[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            block[position++] = (byte) value;
+        }
+
+        private void flushBlock() throws IOException {
+            if (position == 0) {
+                return;
+            }
+
+            writeLength(position);
+            emit(block, 0, position);
+            position = 0;
+        }
+
+        private void finish() throws IOException {
+            flushBlock();
+            writeLength(0);
+        }
+
+        private void writeLength(int length) throws IOException {
+            int bytes = 0;
+            while ((length & ~0x7F) != 0) {
+                prefix[bytes++] = (byte) ((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+
+            prefix[bytes++] = (byte) length;
+            emit(prefix, 0, bytes);
+        }
+
+        private void emit(byte[] bytes, int offset, int length) throws IOException {
+            if (out != null) {
+                out.write(bytes, offset, length);
+            } else {
+                buffer.put(bytes, offset, length);
+            }
+        }
+    }
+
+    /**
+     * Reads the length prefixed blocks back, reading exactly as many bytes from the source as were written
+     */
+    private static final class BlockReader extends InputStream {
+        private final InputStream in;
+        private final ByteBuffer buffer;
+        private final byte[] block = new byte[BLOCK_BYTES];
+        private int position;
+        private int limit;
+        private boolean ended;
+
+        private BlockReader(InputStream in, ByteBuffer buffer) {
+            this.in = in;
+            this.buffer = buffer;
+        }
+
+        private void readHeader() throws IOException {
+            int magic = 0;
+            for (int i = 0; i < 4; i++) {
+                magic = (magic << 8) | readSourceByte();
+            }
+
+            if (magic != MAGIC) {
+                throw new IOException("Data is not a RangeSet in the binary format");
+            }
+
+            int version = readSourceByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported RangeSet format version " + version);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == limit && !nextBlock()) {
+                return -1;
+            }
+
+            return block[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            
+            if (position == limit && !nextBlock()) {
+                return -1;
+            }
+
+            int copied = Math.min(length, limit - position);
+            System.arraycopy(block, position, bytes, offset, copied);
+            position += copied;
+            return copied;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = position < limit ? block[position++] & 0xFF : read();
+                if (b < 0) {
+                    throw new EOFException("RangeSet data ended inside of a number");
+                }
+
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IOException("Corrupt RangeSet data, number is too long");
+        }
+
+        private boolean nextBlock() throws IOException {
+            if (ended) {
+                return false;
+            }
+
+            int length = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (shift > 28) {
+                    throw new IOException("Corrupt RangeSet data, block length is too long");
+                }
+                
+                int b = readSourceByte();
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+
+            if (length == 0) {
+                ended = true;
+                return false;
+            }
+
+            if (length < 0 || length > BLOCK_BYTES) {
+                throw new IOException("Corrupt RangeSet data, block of " + length + " bytes");
+            }
+
+            if (in != null) {
+                if (in.readNBytes(block, 0, length) != length) {
+                    throw new EOFException("RangeSet data ended inside of a block");
+                }
+            } else {
+                if (buffer.remaining() < length) {
+                    throw new EOFException("RangeSet data ended inside of a block");
+                }
+                
+                buffer.get(block, 0, length);
+            }
+
+            position = 0;
+            limit = length;
+            return true;
+        }
+
+        private void finish() throws IOException {
+            if (position != limit || nextBlock()) {
+                throw new IOException("Corrupt RangeSet data, unexpected data after the last range");
+            }
+        }
+
+        private int readSourceByte() throws IOException {
+            if (in != null) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new EOFException("RangeSet data ended unexpectedly");
+                }
+
+                return b;
+            }
+
+            if (!buffer.hasRemaining()) {
+                throw new EOFException("RangeSet data ended unexpectedly");
+            }
+
+            return buffer.get() & 0xFF;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.stardevllc.range;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores RangeSets in a file that can be memory mapped and queried without deserializing the ranges. <br>
+ * The file is a 16 byte header (magic, format version, range count and distinct value count), followed by the sorted mins, the maxes and an int value id per range, all little endian. The distinct values come last, written with a {@link RangeValueCodec}. <br>
+ * {@link #map(Path, RangeValueCodec)} maps the range section read only and only decodes the distinct values, so loading is near instant and processes mapping the same file share the page cache.
+ */
+public final class RangeSetFiles {
+    /**
+     * The bytes "RSET"
+     */
+    static final int MAGIC = 0x52534554;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    
+    private RangeSetFiles() {
+    }
+
+    /**
+     * Writes a RangeSet to a file, replacing the file if it already exists
+     *
+     * @param rangeSet The RangeSet to write
+     * @param file     The file to write to
+     * @param codec    The codec used to write the values
+     * @param <V>      The parameterized type of the value
+     * @throws IOException If the file could not be written
+     */
+    public static <V> void write(RangeSet<V> rangeSet, Path file, RangeValueCodec<V> codec) throws IOException {
+        Collection<Range<V>> ranges = rangeSet.getValues();
+        int size = ranges.size();
+        if ((long) size * OffHeapRangeSet.BYTES_PER_RANGE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many ranges to map from a single file: " + size);
+        }
+
+        long[] mins = new long[size];
+        long[] maxs = new long[size];
+        int[] ids = new int[size];
+        Map<V, Integer> idsByValue = new HashMap<>();
+        List<V> values = new ArrayList<>();
+        int i = 0;
+        for (Range<V> range : ranges) {
+            mins[i] = range.min();
+            maxs[i] = range.max();
+            Integer id = idsByValue.get(range.value());
+            if (id == null) {
+                id = values.size();
+                idsByValue.put(range.value(), id);
+                values.add(range.value());
+            }
+            
+            ids[i] = id;
+            i++;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(values.size());
+            for (long min : mins) {
+                buffer = flushIfFull(channel, buffer, Long.BYTES).putLong(min);
+            }
+            
+            for (long max : maxs) {
+                buffer = flushIfFull(channel, buffer, Long.BYTES).putLong(max);
+            }
+            
+            for (int id : ids) {
+                buffer = flushIfFull(channel, buffer, Integer.BYTES).putInt(id);
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            for (V value : values) {
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    codec.write(value, out);
+                }
+            }
+            
+            out.flush();
+        }
+    }
+
+    /**
+     * Memory maps a file written by {@link #write(RangeSet, Path, RangeValueCodec)}. <br>
+     * The ranges are read straight from the mapping, only the distinct values are decoded. The file must not be changed while the returned set is in use.
+     *
+     * @param file  The file to map
+     * @param codec The codec used to read the values
+     * @param <V>   The parameterized type of the value
+     * @return A read only RangeSet backed by the mapped file
+     * @throws IOException If the file could not be read or is not in the expected format
+     */
+    public static <V> OffHeapRangeSet<V> map(Path file, RangeValueCodec<V> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IOException("File is too short to be a RangeSet file: " + file);
+                }
+            }
+
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("File is not a RangeSet file: " + file);
+            }
+
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported RangeSet file version " + version + ": " + file);
+            }
+
+            int size = header.getInt();
+            int valueCount = header.getInt();
+            long rangeBytes = (long) size * OffHeapRangeSet.BYTES_PER_RANGE;
+            if (size < 0 || valueCount < 0 || rangeBytes > Integer.MAX_VALUE || HEADER_BYTES + rangeBytes > channel.size()) {
+                throw new IOException("RangeSet file is truncated or corrupt: " + file);
+            }
+
+            //Every value takes at least its null flag byte, so a larger count cannot be real and is not allocated
+            if (valueCount > channel.size() - HEADER_BYTES - rangeBytes) {
+                throw new IOException("RangeSet file claims more values than it holds: " + file);
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, rangeBytes);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            int idsOffset = size * Long.BYTES * 2;
+            for (int i = 0; i < size; i++) {
+                int id = mapped.getInt(idsOffset + i * Integer.BYTES);
+                if (id < 0 || id >= valueCount) {
+                    throw new IOException("RangeSet file has a value id " + id + " out of " + valueCount + " values: " + file);
+                }
+            }
+
+            channel.position(HEADER_BYTES + rangeBytes);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            Object[] values = new Object[valueCount];
+            for (int i = 0; i < valueCount; i++) {
+                values[i] = in.readBoolean() ? codec.read(in) : null;
+            }
+
+            return new OffHeapRangeSet<>(mapped, size, values);
+        }
+    }
+
+    private static ByteBuffer flushIfFull(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() < needed) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            
+            buffer.clear();
+        }
+
+        return buffer;
+    }
+}
@@ -0,0 +1,331 @@
+package com.stardevllc.range;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams <code>min,max,value</code> rows from delimited text into a {@link RangeSet.Builder}. <br>
+ * The text is read through one reusable byte buffer and the mins and maxes are parsed straight from the bytes, so no String is created per line and the text is never held in memory as a whole. The value is everything after the second delimiter and is handed to a {@link ValueParser} as a slice of the buffer. Quoting is not supported. <br>
+ * Blank lines are skipped and a trailing carriage return is ignored, so files with Windows line endings can be read.
+ *
+ * @param <V> The parameterized type of the value
+ */
+public final class RangeSetImporter<V> {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    
+    private final byte delimiter;
+    private final boolean header;
+    private final ValueParser<V> valueParser;
+
+    /**
+     * Constructs an importer
+     *
+     * @param delimiter   The character between the fields, it must be a single byte in UTF-8
+     * @param header      If the first line is a header that should be skipped
+     * @param valueParser Creates the value of a range from its bytes
+     */
+    public RangeSetImporter(char delimiter, boolean header, ValueParser<V> valueParser) {
+        if (delimiter > 0x7F) {
+            throw new IllegalArgumentException("The delimiter must be an ASCII character");
+        }
+        
+        this.delimiter = (byte) delimiter;
+        this.header = header;
+        this.valueParser = valueParser;
+    }
+
+    /**
+     * Creates an importer for comma separated rows without a header
+     *
+     * @param valueParser Creates the value of a range from its bytes
+     * @param <V>         The parameterized type of the value
+     * @return The new importer
+     */
+    public static <V> RangeSetImporter<V> csv(ValueParser<V> valueParser) {
+        return new RangeSetImporter<>(',', false, valueParser);
+    }
+
+    /**
+     * Creates an importer for tab separated rows without a header
+     *
+     * @param valueParser Creates the value of a range from its bytes
+     * @param <V>         The parameterized type of the value
+     * @return The new importer
+     */
+    public static <V> RangeSetImporter<V> tsv(ValueParser<V> valueParser) {
+        return new RangeSetImporter<>('\t', false, valueParser);
+    }
+
+    /**
+     * Reads all of the rows of a stream. The stream is not closed.
+     *
+     * @param in The stream to read from
+     * @return A builder holding the ranges that were read
+     * @throws IOException If the stream could not be read or a row is malformed
+     */
+    public RangeSet.Builder<V> read(InputStream in) throws IOException {
+        RangeSet.Builder<V> builder = new RangeSet.Builder<>();
+        parse(in, Long.MAX_VALUE, 0, header, builder);
+        return builder;
+    }
+
+    /**
+     * Reads all of the rows of a file, splitting it into chunks at line boundaries that are parsed in parallel. <br>
+     * Each chunk is parsed into its own builder, which are combined at the end. The ranges are sorted when the returned builder is built, so the order of the chunks does not matter.
+     *
+     * @param file        The file to read
+     * @param parallelism The amount of threads to parse with
+     * @return A builder holding the ranges that were read
+     * @throws IOException If the file could not be read or a row is malformed
+     */
+    public RangeSet.Builder<V> read(Path file, int parallelism) throws IOException {
+        long[] bounds;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            bounds = chunkBounds(channel, Math.max(1, parallelism));
+        }
+
+        int chunks = bounds.length - 1;
+        if (chunks == 1) {
+            try (InputStream in = Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ))) {
+                return read(in);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(chunks);
+        try {
+            List<Future<RangeSet.Builder<V>>> futures = new ArrayList<>();
+            for (int i = 0; i < chunks; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                boolean skipHeader = header && i == 0;
+                futures.add(executor.submit(() -> {
+                    RangeSet.Builder<V> builder = new RangeSet.Builder<>();
+                    try (InputStream in = Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ).position(start))) {
+                        parse(in, end - start, start, skipHeader, builder);
+                    }
+                    
+                    return builder;
+                }));
+            }
+
+            RangeSet.Builder<V> combined = new RangeSet.Builder<>();
+            for (Future<RangeSet.Builder<V>> future : futures) {
+                combined.addAll(future.get());
+            }
+
+            return combined;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while importing " + file, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new IOException("Failed to import " + file, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits the file into roughly even chunks, moving each boundary to just after the next line break
+     */
+    private static long[] chunkBounds(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(1, Math.min(parallelism, size / BUFFER_BYTES));
+        long[] bounds = new long[chunks + 1];
+        ByteBuffer scan = ByteBuffer.allocate(4096);
+        int count = 1;
+        for (int i = 1; i < chunks; i++) {
+            long position = Math.max(size * i / chunks, bounds[count - 1]);
+            long boundary = -1;
+            while (boundary < 0 && position < size) {
+                scan.clear();
+                int read = channel.read(scan, position);
+                if (read <= 0) {
+                    break;
+                }
+                
+                for (int j = 0; j < read; j++) {
+                    if (scan.get(j) == '\n') {
+                        boundary = position + j + 1;
+                        break;
+                    }
+                }
+                
+                position += read;
+            }
+
+            if (boundary > bounds[count - 1] && boundary < size) {
+                bounds[count++] = boundary;
+            }
+        }
+
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private void parse(InputStream in, long limit, long baseOffset, boolean skipHeader, RangeSet.Builder<V> builder) throws IOException {
+        byte[] buffer = new byte[BUFFER_BYTES];
+        int filled = 0;
+        long consumed = 0;
+        long remaining = limit;
+        boolean skipLine = skipHeader;
+        boolean end = false;
+        while (!end) {
+            if (filled == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+
+            int read = remaining > 0 ? in.read(buffer, filled, (int) Math.min(buffer.length - filled, remaining)) : -1;
+            if (read < 0) {
+                end = true;
+            } else {
+                filled += read;
+                remaining -= read;
+            }
+
+            int lineStart = 0;
+            for (int i = 0; i < filled; i++) {
+                if (buffer[i] == '\n') {
+                    if (!skipLine) {
+                        parseLine(buffer, lineStart, i, baseOffset + consumed + lineStart, builder);
+                    }
+                    
+                    skipLine = false;
+                    lineStart = i + 1;
+                }
+            }
+
+            if (end && lineStart < filled) {
+                if (!skipLine) {
+                    parseLine(buffer, lineStart, filled, baseOffset + consumed + lineStart, builder);
+                }
+                
+                lineStart = filled;
+            }
+
+            System.arraycopy(buffer, lineStart, buffer, 0, filled - lineStart);
+            filled -= lineStart;
+            consumed += lineStart;
+        }
+    }
+
+    private void parseLine(byte[] line, int start, int end, long offset, RangeSet.Builder<V> builder) throws IOException {
+        if (end > start && line[end - 1] == '\r') {
+            end--;
+        }
+
+        if (end == start) {
+            return;
+        }
+
+        int first = indexOf(line, start, end);
+        int second = first < 0 ? -1 : indexOf(line, first + 1, end);
+        if (second < 0) {
+            throw new IOException("Row at byte " + offset + " does not have min, max and value fields");
+        }
+
+        long min = parseLong(line, start, first, offset);
+        long max = parseLong(line, first + 1, second, offset);
+        if (min > max) {
+            throw new IOException("Row at byte " + offset + " has a min greater than its max");
+        }
+        
+        builder.add(min, max, valueParser.parse(line, second + 1, end - second - 1));
+    }
+
+    private int indexOf(byte[] line, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (line[i] == delimiter) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static long parseLong(byte[] bytes, int start, int end, long offset) throws IOException {
+        while (start < end && bytes[start] == ' ') {
+            start++;
+        }
+        
+        while (end > start && bytes[end - 1] == ' ') {
+            end--;
+        }
+
+        boolean negative = start < end && bytes[start] == '-';
+        int i = negative || (start < end && bytes[start] == '+') ? start + 1 : start;
+        if (i == end) {
+            throw new IOException("Row at byte " + offset + " has an empty number");
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IOException("Row at byte " + offset + " has an invalid number");
+            }
+
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw new IOException("Row at byte " + offset + " has a number that does not fit in a long");
+            }
+            
+            value = value * 10 - digit;
+        }
+
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw new IOException("Row at byte " + offset + " has a number that does not fit in a long");
+            }
+            
+            return -value;
+        }
+        
+        return value;
+    }
+
+    /**
+     * Creates the value of a range from the bytes of its field
+     *
+     * @param <V> The type of the value
+     */
+    @FunctionalInterface
+    public interface ValueParser<V> {
+
+        /**
+         * Creates a value. The bytes are only valid during the call, as the buffer is reused for the next rows.
+         *
+         * @param bytes  The buffer holding the field
+         * @param offset The start of the field in the buffer
+         * @param length The length of the field
+         * @return The value
+         */
+        V parse(byte[] bytes, int offset, int length);
+
+        /**
+         * @return A parser that decodes the field as a UTF-8 string
+         */
+        static ValueParser<String> strings() {
+            return (bytes, offset, length) -> new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+    }
+}
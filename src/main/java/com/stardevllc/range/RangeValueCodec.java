@@ -0,0 +1,103 @@
+package com.stardevllc.range;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes and reads the values of ranges when a RangeSet is stored in a binary format. <br>
+ * Values are only written once per distinct value, the ranges refer to them by id. Null values are handled by the format and are never passed to the codec.
+ *
+ * @param <V> The type of the value
+ */
+public interface RangeValueCodec<V> {
+
+    /**
+     * Writes a value
+     *
+     * @param value The value to write, never null
+     * @param out   The output to write to
+     * @throws IOException If the output could not be written to
+     */
+    void write(V value, DataOutput out) throws IOException;
+
+    /**
+     * Reads a value that was written with {@link #write(Object, DataOutput)}
+     *
+     * @param in The input to read from
+     * @return The value that was read
+     * @throws IOException If the input could not be read from
+     */
+    V read(DataInput in) throws IOException;
+
+    /**
+     * @return A codec that stores strings as a length prefixed UTF-8 byte array. <br>
+     * The length is not trusted when reading, the buffer starts small and only grows as the bytes actually arrive, so a corrupt length fails with an IOException instead of a huge allocation.
+     */
+    static RangeValueCodec<String> strings() {
+        return new RangeValueCodec<>() {
+            @Override
+            public void write(String value, DataOutput out) throws IOException {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("Corrupt string length " + length);
+                }
+
+                byte[] bytes = new byte[Math.min(length, 4096)];
+                int read = 0;
+                while (true) {
+                    in.readFully(bytes, read, bytes.length - read);
+                    read = bytes.length;
+                    if (read == length) {
+                        return new String(bytes, StandardCharsets.UTF_8);
+                    }
+
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(length, read * 2L));
+                }
+            }
+        };
+    }
+
+    /**
+     * @return A codec that stores integers as 4 bytes
+     */
+    static RangeValueCodec<Integer> integers() {
+        return new RangeValueCodec<>() {
+            @Override
+            public void write(Integer value, DataOutput out) throws IOException {
+                out.writeInt(value);
+            }
+
+            @Override
+            public Integer read(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+    }
+
+    /**
+     * @return A codec that stores longs as 8 bytes
+     */
+    static RangeValueCodec<Long> longs() {
+        return new RangeValueCodec<>() {
+            @Override
+            public void write(Long value, DataOutput out) throws IOException {
+                out.writeLong(value);
+            }
+
+            @Override
+            public Long read(DataInput in) throws IOException {
+                return in.readLong();
+            }
+        };
+    }
+}
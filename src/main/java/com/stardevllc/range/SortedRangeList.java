@@ -0,0 +1,93 @@
+package com.stardevllc.range;
+
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * A SortedSet view over a list of ranges that is already in ascending order without overlaps. <br>
+ * This is mainly used so that a TreeSet can be filled using its linear time bulk construction, which it only does when given a SortedSet with the same ordering. <br>
+ * The views returned by {@link #subSet(Range, Range)}, {@link #headSet(Range)} and {@link #tailSet(Range)} are index ranges of the same list, found by binary search.
+ *
+ * @param <V> The parameterized type of the value to represent
+ */
+final class SortedRangeList<V> extends AbstractSet<Range<V>> implements SortedSet<Range<V>> {
+    private final List<Range<V>> ranges;
+
+    SortedRangeList(List<Range<V>> ranges) {
+        this.ranges = ranges;
+    }
+
+    @Override
+    public Iterator<Range<V>> iterator() {
+        return ranges.iterator();
+    }
+
+    @Override
+    public int size() {
+        return ranges.size();
+    }
+
+    @Override
+    public Comparator<? super Range<V>> comparator() {
+        return null;
+    }
+
+    @Override
+    public Range<V> first() {
+        if (ranges.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return ranges.get(0);
+    }
+
+    @Override
+    public Range<V> last() {
+        if (ranges.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return ranges.get(ranges.size() - 1);
+    }
+
+    @Override
+    public SortedSet<Range<V>> subSet(Range<V> fromElement, Range<V> toElement) {
+        if (fromElement.compareTo(toElement) > 0) {
+            throw new IllegalArgumentException("fromElement is greater than toElement");
+        }
+
+        return new SortedRangeList<>(ranges.subList(lowerBound(fromElement), lowerBound(toElement)));
+    }
+
+    @Override
+    public SortedSet<Range<V>> headSet(Range<V> toElement) {
+        return new SortedRangeList<>(ranges.subList(0, lowerBound(toElement)));
+    }
+
+    @Override
+    public SortedSet<Range<V>> tailSet(Range<V> fromElement) {
+        return new SortedRangeList<>(ranges.subList(lowerBound(fromElement), ranges.size()));
+    }
+
+    /**
+     * @return The position of the first range that is not less than the element, or the size if every range is less
+     */
+    private int lowerBound(Range<V> element) {
+        int low = 0;
+        int high = ranges.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ranges.get(middle).compareTo(element) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,263 @@
+package com.stardevllc.range;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread safe view of another RangeSet guarded by a {@link StampedLock}. <br>
+ * The O(log n) point reads ({@link #get(long)}, {@link #getRange(long)}, {@link #getMin()}, {@link #getMax()} and {@link #size()}) first run as an optimistic read without taking the lock and are only retried under the read lock if a write happened at the same time. <br>
+ * As an optimistic read can run over the wrapped set while it is being changed, any exception it throws is treated the same as a failed validation. Reads that walk many ranges (the batch lookups, {@link #getValues()}, {@link #forEachIntersecting(long, long, Consumer)}, {@link #freeze()} and the copies) always take the read lock, so they never traverse a set in the middle of a change. Writes take the write lock. <br>
+ * The wrapped set must not be used directly once it is wrapped.
+ *
+ * @param <V> The parameterized type of the value to represent
+ */
+public class StampedRangeSet<V> extends RangeSet<V> {
+    private final StampedLock lock = new StampedLock();
+    private final RangeSet<V> delegate;
+
+    /**
+     * Constructs a StampedRangeSet that guards the provided RangeSet
+     *
+     * @param delegate The RangeSet to guard
+     */
+    public StampedRangeSet(RangeSet<V> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public RangeSet<V> add(Range<V> range) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.add(range);
+            return this;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public RangeSet<V> replace(Range<V> range) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.replace(range);
+            return this;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public RangeSet<V> setCoalescing(boolean coalescing) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.setCoalescing(coalescing);
+            return this;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean isCoalescing() {
+        return read(delegate::isCoalescing);
+    }
+
+    @Override
+    public RangeSet<V> compact() {
+        long stamp = lock.writeLock();
+        try {
+            delegate.compact();
+            return this;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public RangeSet<V> addMax(long max, V value) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.addMax(max, value);
+            return this;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public RangeSet<V> addMin(long min, V value) {
+        long stamp = lock.writeLock();
+        try {
+            delegate.addMin(min, value);
+            return this;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Range<V> remove(long index) {
+        long stamp = lock.writeLock();
+        try {
+            return delegate.remove(index);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Range<V> remove(V value) {
+        long stamp = lock.writeLock();
+        try {
+            return delegate.remove(value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public V get(long index) {
+        return read(() -> delegate.get(index));
+    }
+
+    @Override
+    public Range<V> getRange(long index) {
+        return read(() -> delegate.getRange(index));
+    }
+
+    @Override
+    public void getAll(long[] indexes, V[] out) {
+        readLocked(() -> {
+            delegate.getAll(indexes, out);
+            return null;
+        });
+    }
+
+    @Override
+    public void indexOfAll(long[] indexes, int[] out) {
+        readLocked(() -> {
+            delegate.indexOfAll(indexes, out);
+            return null;
+        });
+    }
+
+    /**
+     * The matching ranges are collected under the lock and passed to the consumer after it is released, so the consumer is only ever called once per range and may change this set.
+     */
+    @Override
+    public void forEachIntersecting(long min, long max, Consumer<? super Range<V>> consumer) {
+        List<Range<V>> intersecting = readLocked(() -> {
+            List<Range<V>> ranges = new ArrayList<>();
+            delegate.forEachIntersecting(min, max, ranges::add);
+            return ranges;
+        });
+        intersecting.forEach(consumer);
+    }
+
+    @Override
+    public Collection<Range<V>> getValues() {
+        return readLocked(delegate::getValues);
+    }
+
+    @Override
+    public long getMin() {
+        return readLong(delegate::getMin);
+    }
+
+    @Override
+    public long getMax() {
+        return readLong(delegate::getMax);
+    }
+
+    @Override
+    public int size() {
+        return (int) readLong(delegate::size);
+    }
+
+    @Override
+    public int getModCount() {
+        return (int) readLong(delegate::getModCount);
+    }
+
+    @Override
+    public ImmutableRangeSet<V> freeze() {
+        return readLocked(delegate::freeze);
+    }
+
+    @Override
+    public StampedRangeSet<V> copy() {
+        return new StampedRangeSet<>(readLocked(delegate::copy));
+    }
+
+    @Override
+    public StampedRangeSet<V> copy(UnaryOperator<V> copier) {
+        return new StampedRangeSet<>(readLocked(() -> delegate.copy(copier)));
+    }
+
+    @Override
+    public StampedRangeSet<V> clone() {
+        return copy();
+    }
+
+    /**
+     * Runs a point read optimistically, falling back to the read lock. Only used for reads that look at a few ranges, as the read can see the set in the middle of a change
+     */
+    private <R> R read(Supplier<R> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                R result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                //A write changed the set while it was being read, retried below under the read lock
+            }
+        }
+
+        return readLocked(reader);
+    }
+
+    private <R> R readLocked(Supplier<R> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private long readLong(LongSupplier reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                long result = reader.getAsLong();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                //A write changed the set while it was being read, retried below under the read lock
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return reader.getAsLong();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StampedRangeSet{" +
+                "ranges=" + getValues() +
+                '}';
+    }
+}
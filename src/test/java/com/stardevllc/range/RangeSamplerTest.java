@@ -0,0 +1,80 @@
+package com.stardevllc.range;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RangeSamplerTest {
+    private static final long RUN_MILLIS = 500;
+
+    @Test
+    void sampleWhileConcurrentRangeSetIsWritten() throws InterruptedException {
+        sampleWhileWritten(ConcurrentRangeSet::new);
+    }
+
+    @Test
+    void sampleWhileCopyOnWriteRangeSetIsWritten() throws InterruptedException {
+        sampleWhileWritten(CopyOnWriteRangeSet::new);
+    }
+
+    @Test
+    void aliasSampleWhileConcurrentRangeSetIsWritten() throws InterruptedException {
+        RangeSet<Integer> rangeSet = new ConcurrentRangeSet<>();
+        rangeSet.add(0, 9, 0);
+        sampleWhileWritten(rangeSet, new AliasRangeSampler<>(rangeSet));
+    }
+
+    private void sampleWhileWritten(Supplier<RangeSet<Integer>> factory) throws InterruptedException {
+        RangeSet<Integer> rangeSet = factory.get();
+        rangeSet.add(0, 9, 0);
+        sampleWhileWritten(rangeSet, new RangeSampler<>(rangeSet));
+    }
+
+    /**
+     * Samples on the test thread while another thread keeps adding and removing ranges, so the tables are rebuilt while the set changes size
+     */
+    private void sampleWhileWritten(RangeSet<Integer> rangeSet, RangeSampler<Integer> sampler) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> writerFailure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(1);
+            try {
+                while (running.get()) {
+                    long min = 10 + random.nextInt(1000) * 10L;
+                    if (random.nextBoolean()) {
+                        rangeSet.add(min, min + 9, (int) min);
+                    } else {
+                        rangeSet.remove(min);
+                    }
+                }
+            } catch (Throwable e) {
+                writerFailure.set(e);
+            }
+        });
+        writer.start();
+
+        SplittableRandom random = new SplittableRandom(2);
+        Integer[] batch = new Integer[64];
+        long end = System.currentTimeMillis() + RUN_MILLIS;
+        try {
+            while (System.currentTimeMillis() < end) {
+                assertNotNull(sampler.sample(random));
+                sampler.sample(random, batch);
+                for (Integer value : batch) {
+                    assertNotNull(value);
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+
+        assertNull(writerFailure.get());
+    }
+}
@@ -0,0 +1,77 @@
+package com.stardevllc.range;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RangeSetCodecTest {
+    private final RangeSetCodec<Integer> codec = new RangeSetCodec<>(RangeValueCodec.integers());
+
+    @Test
+    void roundTripsTheFullIndexSpace() throws IOException {
+        RangeSet<Integer> rangeSet = new RangeSet<Integer>()
+                .add(Long.MIN_VALUE, Long.MIN_VALUE + 2, 1)
+                .add(-5, 5, 2)
+                .add(Long.MAX_VALUE - 3, Long.MAX_VALUE, 1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.writeTo(rangeSet, out);
+        RangeSet<Integer> read = codec.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(new ArrayList<>(rangeSet.getValues()), new ArrayList<>(read.getValues()));
+    }
+
+    @Test
+    void rejectsHugeCountsWithoutAllocatingThem() {
+        //Claims Integer.MAX_VALUE ranges and values but holds no data after the counts
+        byte[] counts = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        assertThrows(IOException.class, () -> codec.readFrom(new ByteArrayInputStream(data(counts))));
+    }
+
+    @Test
+    void rejectsCountsAboveIntegerMaxValue() {
+        byte[] counts = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10, 0x00};
+        assertThrows(IOException.class, () -> codec.readFrom(new ByteArrayInputStream(data(counts))));
+    }
+
+    @Test
+    void rejectsRangesThatEndPastTheMaximumIndex() {
+        //One range and no values would fail on the id, so one null value: min 0, width 2^63, id 0
+        byte[] body = {0x01, 0x01, 0x00, 0x00, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01, 0x00};
+        assertThrows(IOException.class, () -> codec.readFrom(new ByteArrayInputStream(data(body))));
+    }
+
+    @Test
+    void rejectsNegativeStringLengths() {
+        //One range and one string value whose length is -1
+        byte[] body = {0x01, 0x01, 0x01, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+        RangeSetCodec<String> strings = new RangeSetCodec<>(RangeValueCodec.strings());
+        assertThrows(IOException.class, () -> strings.readFrom(new ByteArrayInputStream(data(body))));
+    }
+
+    @Test
+    void rejectsHugeStringLengthsWithoutAllocatingThem() {
+        //One range and one string value that claims Integer.MAX_VALUE bytes but holds none
+        byte[] body = {0x01, 0x01, 0x01, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+        RangeSetCodec<String> strings = new RangeSetCodec<>(RangeValueCodec.strings());
+        assertThrows(IOException.class, () -> strings.readFrom(new ByteArrayInputStream(data(body))));
+    }
+
+    /**
+     * Wraps the body in the header and a single block
+     */
+    private static byte[] data(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[] {0x52, 0x53, 0x43, 0x01, RangeSetCodec.VERSION});
+        out.write(body.length);
+        out.writeBytes(body);
+        out.write(0);
+        return out.toByteArray();
+    }
+}
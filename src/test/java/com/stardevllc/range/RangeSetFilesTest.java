@@ -0,0 +1,70 @@
+package com.stardevllc.range;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RangeSetFilesTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void mapsWhatWasWritten() throws IOException {
+        Path file = write();
+        OffHeapRangeSet<String> mapped = RangeSetFiles.map(file, RangeValueCodec.strings());
+
+        assertEquals(new ArrayList<>(ranges().getValues()), new ArrayList<>(mapped.getValues()));
+        assertEquals("b", mapped.get(15));
+    }
+
+    @Test
+    void rejectsHugeValueCountsWithoutAllocatingThem() throws IOException {
+        Path file = write();
+        patchInt(file, 12, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> RangeSetFiles.map(file, RangeValueCodec.strings()));
+    }
+
+    @Test
+    void rejectsRangeCountsLargerThanTheFile() throws IOException {
+        Path file = write();
+        patchInt(file, 8, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> RangeSetFiles.map(file, RangeValueCodec.strings()));
+    }
+
+    @Test
+    void rejectsValueIdsOutOfRange() throws IOException {
+        Path file = write();
+        //The ids follow the header and the 2 mins and 2 maxes, there are only 2 values
+        patchInt(file, RangeSetFiles.HEADER_BYTES + 4 * Long.BYTES, 2);
+        assertThrows(IOException.class, () -> RangeSetFiles.map(file, RangeValueCodec.strings()));
+
+        patchInt(file, RangeSetFiles.HEADER_BYTES + 4 * Long.BYTES, -1);
+        assertThrows(IOException.class, () -> RangeSetFiles.map(file, RangeValueCodec.strings()));
+    }
+
+    private Path write() throws IOException {
+        Path file = dir.resolve("ranges.bin");
+        RangeSetFiles.write(ranges(), file, RangeValueCodec.strings());
+        return file;
+    }
+
+    private static RangeSet<String> ranges() {
+        return new RangeSet<String>().add(0, 9, "a").add(10, 19, "b");
+    }
+
+    private static void patchInt(Path file, int position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value), position);
+        }
+    }
+}
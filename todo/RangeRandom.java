@@ -2,7 +2,12 @@ package com.stardevllc.starlib.range;
 
 import com.stardevllc.starlib.random.StarRandom;
 
-import java.util.Random;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 /**
  * This class allows generation of a random value in a RangeSet.
@@ -10,17 +15,89 @@ import java.util.Random;
  * @param <T> The type of the Value of the RangeSet
  */
 public class RangeRandom<T> implements StarRandom<Long, T> {
-    
-    private static final Random RANDOM = new Random();
 
     private RangeSet<T> rangeSet;
+    private RangeSampler<T> sampler;
+    private Supplier<? extends RandomGenerator> randomSource;
 
     public RangeRandom(RangeSet<T> rangeSet) {
-        this.rangeSet = rangeSet;
+        this(new RangeSampler<>(rangeSet));
     }
 
+    /**
+     * Constructs a RangeRandom that draws using the provided sampler. <br>
+     * Pass an {@link AliasRangeSampler} for O(1) draws when only the values are needed.
+     *
+     * @param sampler The sampler to draw values with
+     */
+    public RangeRandom(RangeSampler<T> sampler) {
+        this(sampler, ThreadLocalRandom::current);
+    }
+
+    /**
+     * Constructs a RangeRandom that draws using the provided sampler and source of randomness. <br>
+     * The source is asked for a generator on every draw from the calling thread. It should hand out a generator per thread (see {@link #perThread(String)}) or one that is safe to share, otherwise threads will contend on it.
+     *
+     * @param sampler      The sampler to draw values with
+     * @param randomSource Supplies the generator to use for a draw
+     */
+    public RangeRandom(RangeSampler<T> sampler, Supplier<? extends RandomGenerator> randomSource) {
+        this.rangeSet = sampler.getRangeSet();
+        this.sampler = sampler;
+        this.randomSource = randomSource;
+    }
+
+    /**
+     * Creates a source that gives each thread its own generator of the provided algorithm, for example <code>L64X128MixRandom</code> or <code>SplittableRandom</code>
+     *
+     * @param algorithm The name of the algorithm as used by {@link RandomGeneratorFactory#of(String)}
+     * @return A source of per thread generators
+     */
+    public static Supplier<RandomGenerator> perThread(String algorithm) {
+        RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(algorithm);
+        ThreadLocal<RandomGenerator> generators = ThreadLocal.withInitial(factory::create);
+        return generators::get;
+    }
+
+    /**
+     * Generates a random value from the RangeSet. Each range is weighted by its width and gaps between ranges are never drawn.
+     *
+     * @param options Unused
+     * @return The generated value or null if the RangeSet is empty
+     */
     public T generate(Object... options) {
-        return rangeSet.get(RANDOM.nextLong(rangeSet.getMin(), rangeSet.getMax() + 1));
+        return sampler.sample(randomSource.get());
+    }
+
+    /**
+     * Generates multiple random values at once. The shared state is only looked up once for the whole batch.
+     *
+     * @param count The amount of values to generate
+     * @return The generated values
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> generate(int count) {
+        T[] values = (T[]) new Object[count];
+        fill(values);
+        return Arrays.asList(values);
+    }
+
+    /**
+     * Fills the array with randomly generated values
+     *
+     * @param out The array to fill
+     */
+    public void fill(T[] out) {
+        sampler.sample(randomSource.get(), out);
+    }
+
+    /**
+     * Fills the array with random indexes that are contained in the RangeSet. Every contained index is equally likely.
+     *
+     * @param out The array to fill
+     */
+    public void sampleIndices(long[] out) {
+        sampler.sampleKeys(randomSource.get(), out);
     }
 
     @Override